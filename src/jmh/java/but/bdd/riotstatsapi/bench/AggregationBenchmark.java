@@ -0,0 +1,137 @@
+package but.bdd.riotstatsapi.bench;
+
+import but.bdd.riotstatsapi.RiotStatsApiApplication;
+import but.bdd.riotstatsapi.repository.*;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence de bout en bout des agrégations (requête Mongo + mapping des vues) sur un jeu synthétique.
+ * Utilise -Dbench.mongo.uri=mongodb://... si fourni, sinon démarre un conteneur MongoDB (Docker requis).
+ * La base est toujours -Dbench.mongo.database (riot_bench par défaut), quelle que soit celle de l'URI : le setup
+ * vide match_data et réécrit les projections, et refuse une base non vide qu'il n'a pas créée lui-même.
+ * Les appels passent par les repositories Spring Data, donc sans les caches de DefaultMatchRepository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+    @Param({ "20000" })
+    public int matches;
+
+    @Param({ "5000" })
+    public int players;
+
+    private MongoDBContainer container;
+    private ConfigurableApplicationContext context;
+    private ChampionStatsRepository championStats;
+    private ParticipationRepository participations;
+    private MatchDataRepository matchData;
+    private DurationBucketRollup durationBuckets;
+    private SplittableRandom random;
+
+    private static final String MARKER = "bench_marker";
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String uri = System.getProperty("bench.mongo.uri");
+        String database = System.getProperty("bench.mongo.database", "riot_bench");
+        if (uri == null) {
+            container = new MongoDBContainer("mongo:7.0");
+            container.start();
+            uri = container.getReplicaSetUrl(database);
+        }
+        context = new SpringApplicationBuilder(RiotStatsApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.data.mongodb.uri=" + uri,
+                        "spring.data.mongodb.database=" + database,
+                        "riot.rollups.rebuild-if-empty=false")
+                .run();
+
+        MongoTemplate mongo = context.getBean(MongoTemplate.class);
+        // les collections indexées au démarrage existent déjà : seule la présence de documents compte
+        boolean hasData = mongo.getCollectionNames().stream()
+                .anyMatch(name -> mongo.getCollection(name).estimatedDocumentCount() > 0);
+        if (!mongo.collectionExists(MARKER) && hasData) {
+            context.close();
+            throw new IllegalStateException("La base " + database + " contient déjà des données : "
+                    + "choisir une base dédiée avec -Dbench.mongo.database");
+        }
+        mongo.getCollection(MARKER).replaceOne(new Document("_id", "bench"), new Document("_id", "bench"),
+                new ReplaceOptions().upsert(true));
+        mongo.getCollection("match_data").deleteMany(new Document());
+        SyntheticData data = new SyntheticData(42, players);
+        List<Document> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < matches; i++) {
+            batch.add(data.match(i));
+            if (batch.size() == 1_000) {
+                mongo.getCollection("match_data").insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) mongo.getCollection("match_data").insertMany(batch);
+        context.getBean(MatchRepository.class).rebuildRollups();
+
+        championStats = context.getBean(ChampionStatsRepository.class);
+        participations = context.getBean(ParticipationRepository.class);
+        matchData = context.getBean(MatchDataRepository.class);
+        durationBuckets = context.getBean(DurationBucketRollup.class);
+        random = new SplittableRandom(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) context.close();
+        if (container != null) container.stop();
+    }
+
+    @Benchmark
+    public List<ChampionCountView> championFrequency() {
+        return championStats.championFrequency(50);
+    }
+
+    @Benchmark
+    public List<WinrateByChampionView> winrateByChampion() {
+        return championStats.winrateByChampion(420, null);
+    }
+
+    @Benchmark
+    public PlayerRolesView playerRolesStatistics() {
+        return participations.getPlayerWithRolesStatistics(SyntheticData.puuid(random.nextInt(players)));
+    }
+
+    @Benchmark
+    public ChampionStatisticsView championStatistics() {
+        return participations.getChampionStatistics(SyntheticData.championName(1 + random.nextInt(SyntheticData.CHAMPIONS)));
+    }
+
+    @Benchmark
+    public List<DurationStatsView> durationsStats() {
+        return matchData.durationsStats(420, "EUW1", null, null);
+    }
+
+    @Benchmark
+    public DurationStats durationBuckets() {
+        return durationBuckets.stats(420, "EUW1", null, null);
+    }
+
+    @Benchmark
+    public long countMatchesByPuuid() {
+        return matchData.countByParticipantPuuid(SyntheticData.puuid(random.nextInt(players)));
+    }
+}
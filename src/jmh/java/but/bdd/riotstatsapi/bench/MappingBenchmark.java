@@ -0,0 +1,54 @@
+package but.bdd.riotstatsapi.bench;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion BSON -> POJO (et retour) d'un document match_data par le MappingMongoConverter de Spring Data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private MappingMongoConverter converter;
+    private Document document;
+    private MatchDataDoc match;
+
+    @Setup
+    public void setup() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext context = new MongoMappingContext();
+        context.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        context.afterPropertiesSet();
+
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        document = new SyntheticData(42, 5_000).match(1);
+        match = converter.read(MatchDataDoc.class, document);
+    }
+
+    @Benchmark
+    public MatchDataDoc readMatchData() {
+        return converter.read(MatchDataDoc.class, document);
+    }
+
+    @Benchmark
+    public Document writeMatchData() {
+        Document target = new Document();
+        converter.write(match, target);
+        return target;
+    }
+}
@@ -0,0 +1,74 @@
+package but.bdd.riotstatsapi.bench;
+
+import but.bdd.riotstatsapi.repository.PlayerRolesView;
+import but.bdd.riotstatsapi.repository.RoleView;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des proxys de projection (PlayerRolesView et ses vues imbriquées) créés par Spring Data
+ * sur les résultats d'agrégation : création, lecture des getters, sérialisation Jackson.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private SpelAwareProxyProjectionFactory factory;
+    private ObjectMapper mapper;
+    private Document source;
+    private PlayerRolesView view;
+
+    @Setup
+    public void setup() {
+        factory = new SpelAwareProxyProjectionFactory();
+        mapper = Jackson2ObjectMapperBuilder.json().serializationInclusion(JsonInclude.Include.NON_NULL).build();
+
+        List<Document> roles = new ArrayList<>();
+        for (String role : SyntheticData.POSITIONS) {
+            roles.add(new Document("role", role)
+                    .append("games", 120).append("wins", 64).append("winrate", 53.33)
+                    .append("favoriteChampion", new Document("name", "Ahri")
+                            .append("games", 40).append("wins", 23).append("winrate", 57.5)));
+        }
+        source = new Document("puuid", SyntheticData.puuid(1))
+                .append("riotName", "Player1#EUW")
+                .append("totalGames", 600).append("totalWins", 320).append("winrate", 53.33)
+                .append("roles", roles);
+        view = factory.createProjection(PlayerRolesView.class, source);
+    }
+
+    @Benchmark
+    public PlayerRolesView createProjection() {
+        return factory.createProjection(PlayerRolesView.class, source);
+    }
+
+    @Benchmark
+    public void readProjection(Blackhole bh) {
+        PlayerRolesView v = factory.createProjection(PlayerRolesView.class, source);
+        bh.consume(v.getPuuid());
+        bh.consume(v.getTotalGames());
+        bh.consume(v.getWinrate());
+        for (RoleView.PlayerRoleView role : v.getRoles()) {
+            bh.consume(role.getRole());
+            bh.consume(role.getGames());
+            bh.consume(role.getFavoriteChampion().getName());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeProjection() throws Exception {
+        return mapper.writeValueAsBytes(view);
+    }
+}
@@ -0,0 +1,103 @@
+package but.bdd.riotstatsapi.bench;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import but.bdd.riotstatsapi.repository.ChampionCountView;
+import but.bdd.riotstatsapi.repository.MatchRepository;
+import but.bdd.riotstatsapi.repository.WinrateByChampionView;
+import but.bdd.riotstatsapi.web.MatchController;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson des réponses : MatchDataDoc complets et copies LinkedHashMap
+ * construites par MatchController.championFrequency / winrateByChampion.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({ "20" })
+    public int historySize;
+
+    @Param({ "168" })
+    public int champions;
+
+    private ObjectMapper mapper;
+    private MatchDataDoc match;
+    private List<MatchDataDoc> history;
+    private MatchController controller;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().serializationInclusion(JsonInclude.Include.NON_NULL).build();
+
+        MongoMappingContext context = new MongoMappingContext();
+        context.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.afterPropertiesSet();
+
+        SyntheticData data = new SyntheticData(42, 5_000);
+        history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(converter.read(MatchDataDoc.class, data.match(i)));
+        }
+        match = history.get(0);
+
+        SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+        List<ChampionCountView> counts = new ArrayList<>(champions);
+        List<WinrateByChampionView> winrates = new ArrayList<>(champions);
+        for (int id = 1; id <= champions; id++) {
+            counts.add(projections.createProjection(ChampionCountView.class, new Document("championId", id)
+                    .append("championName", SyntheticData.championName(id))
+                    .append("count", 10_000 - id)));
+            winrates.add(projections.createProjection(WinrateByChampionView.class, new Document("championId", id)
+                    .append("championName", SyntheticData.championName(id))
+                    .append("games", 10_000 - id)
+                    .append("wins", 5_000 - id / 2)
+                    .append("winrate", 50.0 - id / 1000.0)));
+        }
+        MatchRepository repo = (MatchRepository) Proxy.newProxyInstance(
+                MatchRepository.class.getClassLoader(), new Class<?>[] { MatchRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "championFrequency" -> counts;
+                    case "winrateByChampion" -> winrates;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        controller = new MatchController(repo, null, null, null);
+    }
+
+    @Benchmark
+    public byte[] serializeMatchData() throws Exception {
+        return mapper.writeValueAsBytes(match);
+    }
+
+    @Benchmark
+    public byte[] serializeMatchHistory() throws Exception {
+        return mapper.writeValueAsBytes(history);
+    }
+
+    @Benchmark
+    public byte[] championFrequencyResponse() throws Exception {
+        return mapper.writeValueAsBytes(controller.championFrequency(champions).getBody());
+    }
+
+    @Benchmark
+    public byte[] winrateByChampionResponse() throws Exception {
+        return mapper.writeValueAsBytes(controller.winrateByChampion(null, null).getBody());
+    }
+}
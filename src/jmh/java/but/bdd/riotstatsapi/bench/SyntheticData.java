@@ -0,0 +1,143 @@
+package but.bdd.riotstatsapi.bench;
+
+import org.bson.Document;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Jeu de données synthétique et reproductible (graine fixe) au format des documents match_data.
+ */
+final class SyntheticData {
+
+    static final String[] POSITIONS = { "TOP", "JUNGLE", "MIDDLE", "BOTTOM", "UTILITY" };
+    static final String[] PLATFORMS = { "EUW1", "NA1", "KR", "EUN1" };
+    static final int[] QUEUES = { 420, 440, 400 };
+    static final int CHAMPIONS = 168;
+
+    private final SplittableRandom random;
+    private final int players;
+
+    SyntheticData(long seed, int players) {
+        this.random = new SplittableRandom(seed);
+        this.players = players;
+    }
+
+    static String puuid(int player) {
+        return "bench-puuid-" + player;
+    }
+
+    static String championName(int championId) {
+        return "Champion" + championId;
+    }
+
+    Document match(int index) {
+        String platform = PLATFORMS[random.nextInt(PLATFORMS.length)];
+        String matchId = platform + "_" + (6_000_000_000L + index);
+        long start = 1_720_000_000_000L + index * 60_000L;
+        int duration = 900 + random.nextInt(1800);
+
+        List<String> puuids = new ArrayList<>(10);
+        List<Document> participants = new ArrayList<>(10);
+        int[] used = new int[10];
+        for (int i = 0; i < 10; i++) {
+            // un joueur au plus une fois par match (index unique matchId + puuid de participations)
+            int player = random.nextInt(players);
+            while (contains(used, i, player)) player = random.nextInt(players);
+            used[i] = player;
+            puuids.add(puuid(player));
+            int teamId = i < 5 ? 100 : 200;
+            int championId = 1 + random.nextInt(CHAMPIONS);
+            participants.add(new Document()
+                    .append("puuid", puuid(player))
+                    .append("participantId", i + 1)
+                    .append("teamId", teamId)
+                    .append("championId", championId)
+                    .append("championName", championName(championId))
+                    .append("individualPosition", POSITIONS[i % 5])
+                    .append("teamPosition", POSITIONS[i % 5])
+                    .append("kills", random.nextInt(15))
+                    .append("deaths", random.nextInt(12))
+                    .append("assists", random.nextInt(20))
+                    .append("win", teamId == 100 == (index % 2 == 0))
+                    .append("goldEarned", 6000 + random.nextInt(12000))
+                    .append("totalDamageDealtToChampions", 5000 + random.nextInt(40000))
+                    .append("totalMinionsKilled", random.nextInt(300))
+                    .append("summonerName", "Summoner" + player)
+                    .append("summonerId", "summoner-" + player)
+                    .append("riotIdGameName", "Player" + player)
+                    .append("riotIdTagline", "EUW")
+                    .append("itemsPurchased", 10 + random.nextInt(20))
+                    .append("item0", 3000 + random.nextInt(1000))
+                    .append("item1", 3000 + random.nextInt(1000))
+                    .append("item2", 3000 + random.nextInt(1000))
+                    .append("item3", 3000 + random.nextInt(1000))
+                    .append("item4", 3000 + random.nextInt(1000))
+                    .append("item5", 3000 + random.nextInt(1000))
+                    .append("item6", 3340)
+                    .append("perks", perks()));
+        }
+
+        List<Document> teams = List.of(team(100, index % 2 == 0), team(200, index % 2 != 0));
+        return new Document()
+                .append("metadata", new Document()
+                        .append("dataVersion", "2")
+                        .append("matchId", matchId)
+                        .append("participants", puuids))
+                .append("info", new Document()
+                        .append("queueId", QUEUES[random.nextInt(QUEUES.length)])
+                        .append("platformId", platform)
+                        .append("gameDuration", duration)
+                        .append("gameStartTimestamp", start)
+                        .append("gameEndTimestamp", start + duration * 1000L)
+                        .append("gameVersion", "15.16.704.6097")
+                        .append("participants", participants)
+                        .append("teams", teams));
+    }
+
+    private Map<String, Object> perks() {
+        Map<String, Object> perks = new LinkedHashMap<>();
+        perks.put("statPerks", new Document("defense", 5001).append("flex", 5008).append("offense", 5005));
+        List<Document> styles = new ArrayList<>();
+        for (int s = 0; s < 2; s++) {
+            List<Document> selections = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                selections.add(new Document("perk", 8000 + random.nextInt(400))
+                        .append("var1", random.nextInt(1000)).append("var2", 0).append("var3", 0));
+            }
+            styles.add(new Document("description", s == 0 ? "primaryStyle" : "subStyle")
+                    .append("style", 8000 + s * 100)
+                    .append("selections", selections));
+        }
+        perks.put("styles", styles);
+        return perks;
+    }
+
+    private Document team(int teamId, boolean win) {
+        List<Document> bans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bans.add(new Document("championId", 1 + random.nextInt(CHAMPIONS)).append("pickTurn", i + 1));
+        }
+        Document objectives = new Document();
+        for (String objective : List.of("baron", "champion", "dragon", "horde", "inhibitor", "riftHerald", "tower")) {
+            objectives.append(objective, new Document("first", random.nextBoolean()).append("kills", random.nextInt(10)));
+        }
+        return new Document("teamId", teamId)
+                .append("win", win)
+                .append("bans", bans)
+                .append("objectives", objectives)
+                .append("feats", new Document("EPIC_MONSTER_KILL", new Document("featState", random.nextInt(3)))
+                        .append("FIRST_BLOOD", new Document("featState", random.nextInt(2)))
+                        .append("FIRST_TURRET", new Document("featState", random.nextInt(2))));
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package but.bdd.riotstatsapi.analytics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * /actuator/analytics : taille et empreinte mémoire de l'instantané en colonnes ; POST pour le recharger.
+ */
+@Component
+@Endpoint(id = "analytics")
+@ConditionalOnProperty(prefix = "riot.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsEndpoint {
+
+    private final ColumnarAnalytics analytics;
+
+    public AnalyticsEndpoint(ColumnarAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    @ReadOperation
+    public Map<String, Object> info() {
+        var snapshot = analytics.snapshot();
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("loaded", snapshot != null);
+        if (snapshot == null) return res;
+        res.put("loadedAt", snapshot.loadedAt().toString());
+        res.put("loadMs", snapshot.loadMs());
+        res.put("rows", snapshot.columns().rows());
+        res.put("matches", snapshot.columns().matches());
+        res.put("bytes", snapshot.columns().bytes());
+        res.put("columns", snapshot.columns().columnBytes());
+        return res;
+    }
+
+    @WriteOperation
+    public Map<String, Object> refresh() {
+        analytics.refresh();
+        return info();
+    }
+}
@@ -0,0 +1,7 @@
+package but.bdd.riotstatsapi.analytics;
+
+/**
+ * Filtres optionnels des requêtes analytiques ; championId et position ne portent que sur les lignes participant.
+ */
+public record AnalyticsFilter(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo,
+                              Integer championId, String position) {}
@@ -0,0 +1,3 @@
+package but.bdd.riotstatsapi.analytics;
+
+public record ChampionTally(int championId, String championName, long games, long wins, double winrate) {}
@@ -0,0 +1,138 @@
+package but.bdd.riotstatsapi.analytics;
+
+import but.bdd.riotstatsapi.repository.DataVersions;
+import but.bdd.riotstatsapi.repository.DurationStats;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Moteur analytique optionnel (riot.analytics.enabled) : les participants de match_data sont chargés en colonnes
+ * au démarrage puis toutes les riot.analytics.refresh-interval, et les statistiques sont calculées en mémoire
+ * par parcours parallèles. L'instantané est remplacé d'un bloc ; les écritures entre deux chargements n'y figurent pas.
+ */
+@Component
+@ConditionalOnProperty(prefix = "riot.analytics", name = "enabled", havingValue = "true")
+@Timed(value = "riot.analytics.query", histogram = true)
+public class ColumnarAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarAnalytics.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final DataVersions versions;
+    private final int cursorBatchSize;
+    private final Timer loadTimer;
+    private volatile Snapshot snapshot;
+
+    record Snapshot(ParticipantColumns columns, Instant loadedAt, long loadMs) {}
+
+    public ColumnarAnalytics(MongoTemplate mongoTemplate, DataVersions versions, MeterRegistry registry,
+                             @Value("${riot.streaming.cursor-batch-size:1000}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.versions = versions;
+        this.cursorBatchSize = cursorBatchSize;
+        this.loadTimer = Timer.builder("riot.analytics.load").register(registry);
+        Gauge.builder("riot.analytics.rows", this, a -> a.snapshot == null ? 0 : a.snapshot.columns().rows())
+                .register(registry);
+        Gauge.builder("riot.analytics.matches", this, a -> a.snapshot == null ? 0 : a.snapshot.columns().matches())
+                .register(registry);
+        Gauge.builder("riot.analytics.memory", this, a -> a.snapshot == null ? 0 : a.snapshot.columns().bytes())
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${riot.analytics.refresh-interval:PT10M}")
+    public synchronized void refresh() {
+        try {
+            long start = System.nanoTime();
+            ParticipantColumns columns = load();
+            long loadMs = (System.nanoTime() - start) / 1_000_000;
+            loadTimer.record(Duration.ofMillis(loadMs));
+            snapshot = new Snapshot(columns, Instant.now(), loadMs);
+            versions.bump(DataVersions.ANALYTICS);
+            log.info("Moteur analytique chargé: {} participants, {} matchs, {} octets en {} ms",
+                    columns.rows(), columns.matches(), columns.bytes(), loadMs);
+        } catch (RuntimeException e) {
+            log.warn("Chargement du moteur analytique impossible, instantané précédent conservé", e);
+        }
+    }
+
+    public List<ChampionTally> champions(AnalyticsFilter filter, int limit) {
+        List<ChampionTally> all = current().champions(filter);
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+
+    public List<RoleTally> roles(AnalyticsFilter filter) {
+        return current().roles(filter);
+    }
+
+    public DurationStats durations(AnalyticsFilter filter) {
+        return current().durations(filter);
+    }
+
+    private ParticipantColumns current() {
+        Snapshot s = snapshot;
+        if (s == null) throw new IllegalStateException("Moteur analytique en cours de chargement");
+        return s.columns();
+    }
+
+    private ParticipantColumns load() {
+        Query query = new Query().cursorBatchSize(cursorBatchSize);
+        query.fields()
+                .include("info.queueId", "info.platformId", "info.gameStartTimestamp", "info.gameDuration",
+                        "info.participants.championId", "info.participants.championName",
+                        "info.participants.individualPosition", "info.participants.win",
+                        "info.participants.kills", "info.participants.deaths", "info.participants.assists",
+                        "info.participants.goldEarned")
+                .exclude("_id");
+
+        var builder = new ParticipantColumns.Builder((int) Math.min(Integer.MAX_VALUE / 16, mongoTemplate.estimatedCount("match_data")));
+        try (Stream<Document> docs = mongoTemplate.stream(query, Document.class, "match_data")) {
+            docs.forEach(doc -> {
+                Document info = doc.get("info", Document.class);
+                if (info == null) return;
+                builder.match(integer(info, "queueId"), info.getString("platformId"),
+                        info.get("gameStartTimestamp", Number.class) == null ? null
+                                : info.get("gameStartTimestamp", Number.class).longValue(),
+                        integer(info, "gameDuration"));
+                List<Document> participants = info.getList("participants", Document.class);
+                if (participants == null) return;
+                for (Document p : participants) {
+                    builder.participant(integer(p, "championId"), p.getString("championName"),
+                            p.getString("individualPosition"), p.getBoolean("win"),
+                            integer(p, "kills"), integer(p, "deaths"), integer(p, "assists"), integer(p, "goldEarned"));
+                }
+            });
+        }
+        return builder.build();
+    }
+
+    private static Integer integer(Document doc, String key) {
+        Number n = doc.get(key, Number.class);
+        return n == null ? null : n.intValue();
+    }
+}
@@ -0,0 +1,37 @@
+package but.bdd.riotstatsapi.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodage dense des valeurs d'une colonne (code = ordre de première apparition), null compris.
+ */
+final class Dictionary<T> {
+
+    private final Map<T, Integer> codes = new HashMap<>();
+    private final List<T> values = new ArrayList<>();
+
+    int encode(T value) {
+        return codes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    /**
+     * Code de la valeur, ou -1 si elle n'apparaît dans aucune ligne.
+     */
+    int code(T value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    T value(int code) {
+        return values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
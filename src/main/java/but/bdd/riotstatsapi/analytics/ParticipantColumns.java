@@ -0,0 +1,385 @@
+package but.bdd.riotstatsapi.analytics;
+
+import but.bdd.riotstatsapi.repository.DurationStats;
+
+import java.util.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Instantané immuable en colonnes de tableaux primitifs : une ligne par participant (champion, rôle, victoire,
+ * K/D/A, or, et les colonnes du match dénormalisées) et une ligne par match pour les durées.
+ * Les chaînes et identifiants sont codés par dictionnaire ; les agrégations découpent les lignes en tranches
+ * parcourues en parallèle (pool commun fork/join) puis fusionnent les résultats partiels.
+ */
+final class ParticipantColumns {
+
+    static final int CHUNK_ROWS = 1 << 16;
+    /** Durées comptées à la seconde jusqu'à cette borne (4 h), au-delà ramenées à la borne. */
+    private static final int MAX_DURATION = 4 * 3600;
+
+    private final Dictionary<Integer> champions;
+    private final Map<Integer, String> championNames;
+    private final Dictionary<String> positions;
+    private final Dictionary<Integer> queues;
+    private final Dictionary<String> platforms;
+
+    private final int rows;
+    private final short[] champion;
+    private final byte[] position;
+    private final long[] win;
+    private final short[] kills, deaths, assists;
+    private final int[] gold;
+    private final short[] queue;
+    private final short[] platform;
+    private final long[] start;
+
+    private final int matches;
+    private final short[] matchQueue;
+    private final short[] matchPlatform;
+    private final long[] matchStart;
+    private final int[] duration;
+
+    private ParticipantColumns(Builder b) {
+        champions = b.champions;
+        championNames = Map.copyOf(b.championNames);
+        positions = b.positions;
+        queues = b.queues;
+        platforms = b.platforms;
+        rows = b.rows;
+        champion = Arrays.copyOf(b.champion, rows);
+        position = Arrays.copyOf(b.position, rows);
+        win = Arrays.copyOf(b.win, (rows + 63) >>> 6);
+        kills = Arrays.copyOf(b.kills, rows);
+        deaths = Arrays.copyOf(b.deaths, rows);
+        assists = Arrays.copyOf(b.assists, rows);
+        gold = Arrays.copyOf(b.gold, rows);
+        queue = Arrays.copyOf(b.queue, rows);
+        platform = Arrays.copyOf(b.platform, rows);
+        start = Arrays.copyOf(b.start, rows);
+        matches = b.matches;
+        matchQueue = Arrays.copyOf(b.matchQueue, matches);
+        matchPlatform = Arrays.copyOf(b.matchPlatform, matches);
+        matchStart = Arrays.copyOf(b.matchStart, matches);
+        duration = Arrays.copyOf(b.duration, matches);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    int matches() {
+        return matches;
+    }
+
+    /**
+     * Octets occupés par chaque colonne (tableaux seuls, hors en-têtes d'objets et dictionnaires).
+     */
+    Map<String, Long> columnBytes() {
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        bytes.put("champion", 2L * champion.length);
+        bytes.put("position", (long) position.length);
+        bytes.put("win", 8L * win.length);
+        bytes.put("kda", 2L * (kills.length + deaths.length + assists.length));
+        bytes.put("gold", 4L * gold.length);
+        bytes.put("queue", 2L * queue.length);
+        bytes.put("platform", 2L * platform.length);
+        bytes.put("start", 8L * start.length);
+        bytes.put("matchQueue", 2L * matchQueue.length);
+        bytes.put("matchPlatform", 2L * matchPlatform.length);
+        bytes.put("matchStart", 8L * matchStart.length);
+        bytes.put("duration", 4L * duration.length);
+        return bytes;
+    }
+
+    long bytes() {
+        return columnBytes().values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    List<ChampionTally> champions(AnalyticsFilter filter) {
+        Codes codes = resolve(filter);
+        if (codes == null) return List.of();
+        int size = champions.size();
+        long[] totals = scan(rows, () -> new long[2 * size], (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (!codes.matches(this, i)) continue;
+                int c = champion[i];
+                acc[2 * c]++;
+                acc[2 * c + 1] += winBit(i);
+            }
+        }, ParticipantColumns::add);
+
+        List<ChampionTally> res = new ArrayList<>();
+        for (int c = 0; c < size; c++) {
+            long games = totals[2 * c], wins = totals[2 * c + 1];
+            if (games == 0) continue;
+            Integer id = champions.value(c);
+            res.add(new ChampionTally(id == null ? 0 : id, id == null ? null : championNames.get(id), games, wins, 100.0 * wins / games));
+        }
+        res.sort(Comparator.comparingLong(ChampionTally::games).reversed().thenComparingInt(ChampionTally::championId));
+        return res;
+    }
+
+    List<RoleTally> roles(AnalyticsFilter filter) {
+        Codes codes = resolve(filter);
+        if (codes == null) return List.of();
+        int size = positions.size();
+        long[] totals = scan(rows, () -> new long[6 * size], (acc, from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (!codes.matches(this, i)) continue;
+                int base = 6 * position[i];
+                acc[base]++;
+                acc[base + 1] += winBit(i);
+                acc[base + 2] += kills[i];
+                acc[base + 3] += deaths[i];
+                acc[base + 4] += assists[i];
+                acc[base + 5] += gold[i];
+            }
+        }, ParticipantColumns::add);
+
+        List<RoleTally> res = new ArrayList<>();
+        for (int p = 0; p < size; p++) {
+            long games = totals[6 * p];
+            if (games == 0) continue;
+            double g = games;
+            res.add(new RoleTally(positions.value(p), games, totals[6 * p + 1], 100.0 * totals[6 * p + 1] / g,
+                    totals[6 * p + 2] / g, totals[6 * p + 3] / g, totals[6 * p + 4] / g, totals[6 * p + 5] / g));
+        }
+        res.sort(Comparator.comparingLong(RoleTally::games).reversed());
+        return res;
+    }
+
+    /**
+     * Statistiques exactes à la seconde près (comptage par seconde, percentiles au rang le plus proche) ;
+     * championId et position sont ignorés, une durée étant une propriété du match.
+     */
+    DurationStats durations(AnalyticsFilter filter) {
+        Codes codes = resolve(new AnalyticsFilter(filter.queueId(), filter.platformId(),
+                filter.startTimeFrom(), filter.startTimeTo(), null, null));
+        if (codes == null) return empty();
+        // [0..MAX_DURATION] : effectifs par seconde, puis count, sum, min, max
+        long[] totals = scan(matches, ParticipantColumns::durationAccumulator, (acc, from, to) -> {
+            for (int m = from; m < to; m++) {
+                int d = duration[m];
+                if (d < 0 || !codes.matchesMatch(this, m)) continue;
+                acc[Math.min(d, MAX_DURATION)]++;
+                acc[MAX_DURATION + 1]++;
+                acc[MAX_DURATION + 2] += d;
+                acc[MAX_DURATION + 3] = Math.min(acc[MAX_DURATION + 3], d);
+                acc[MAX_DURATION + 4] = Math.max(acc[MAX_DURATION + 4], d);
+            }
+        }, (a, b) -> {
+            for (int i = 0; i <= MAX_DURATION + 2; i++) a[i] += b[i];
+            a[MAX_DURATION + 3] = Math.min(a[MAX_DURATION + 3], b[MAX_DURATION + 3]);
+            a[MAX_DURATION + 4] = Math.max(a[MAX_DURATION + 4], b[MAX_DURATION + 4]);
+            return a;
+        });
+
+        long count = totals[MAX_DURATION + 1];
+        if (count == 0) return empty();
+        int min = (int) totals[MAX_DURATION + 3], max = (int) totals[MAX_DURATION + 4];
+        Map<Integer, Long> histogram = new TreeMap<>();
+        for (int s = 0; s <= MAX_DURATION; s++) {
+            if (totals[s] > 0) histogram.merge(DurationStats.bin(s), totals[s], Long::sum);
+        }
+        return new DurationStats(count, min, max, (double) totals[MAX_DURATION + 2] / count,
+                percentile(totals, count, 0.5, max), percentile(totals, count, 0.9, max), percentile(totals, count, 0.99, max),
+                DurationStats.BIN_SECONDS, histogram);
+    }
+
+    private static long[] durationAccumulator() {
+        long[] acc = new long[MAX_DURATION + 5];
+        acc[MAX_DURATION + 3] = Long.MAX_VALUE;
+        acc[MAX_DURATION + 4] = Long.MIN_VALUE;
+        return acc;
+    }
+
+    private static double percentile(long[] perSecond, long count, double q, int max) {
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int s = 0; s <= MAX_DURATION; s++) {
+            seen += perSecond[s];
+            if (seen >= rank) return s == MAX_DURATION ? max : s;
+        }
+        return max;
+    }
+
+    private static DurationStats empty() {
+        return new DurationStats(0, 0, 0, 0.0, 0.0, 0.0, 0.0, DurationStats.BIN_SECONDS, Map.of());
+    }
+
+    /**
+     * 0 ou 1, sans branchement (une victoire sur deux en moyenne : un test serait mal prédit).
+     */
+    private long winBit(int i) {
+        return (win[i >>> 6] >>> i) & 1L;
+    }
+
+    /**
+     * Filtre traduit en codes de dictionnaire ; null si une valeur demandée n'apparaît dans aucune ligne.
+     */
+    private Codes resolve(AnalyticsFilter filter) {
+        int q = filter.queueId() == null ? -1 : queues.code(filter.queueId());
+        int p = filter.platformId() == null ? -1 : platforms.code(filter.platformId());
+        int c = filter.championId() == null ? -1 : champions.code(filter.championId());
+        int pos = filter.position() == null ? -1 : positions.code(filter.position());
+        if ((filter.queueId() != null && q < 0) || (filter.platformId() != null && p < 0)
+                || (filter.championId() != null && c < 0) || (filter.position() != null && pos < 0)) {
+            return null;
+        }
+        return new Codes(q, p, c, pos,
+                filter.startTimeFrom() == null ? Long.MIN_VALUE : filter.startTimeFrom(),
+                filter.startTimeTo() == null ? Long.MAX_VALUE : filter.startTimeTo());
+    }
+
+    private record Codes(int queue, int platform, int champion, int position, long from, long to) {
+        boolean matches(ParticipantColumns cols, int i) {
+            return (queue < 0 || cols.queue[i] == queue)
+                    && (platform < 0 || cols.platform[i] == platform)
+                    && (champion < 0 || cols.champion[i] == champion)
+                    && (position < 0 || cols.position[i] == position)
+                    && (!timed() || (cols.start[i] >= from && cols.start[i] <= to));
+        }
+
+        boolean matchesMatch(ParticipantColumns cols, int m) {
+            return (queue < 0 || cols.matchQueue[m] == queue)
+                    && (platform < 0 || cols.matchPlatform[m] == platform)
+                    && (!timed() || (cols.matchStart[m] >= from && cols.matchStart[m] <= to));
+        }
+
+        /** Sans bornes de temps, la colonne start (8 octets par ligne) n'est pas lue. */
+        boolean timed() {
+            return from != Long.MIN_VALUE || to != Long.MAX_VALUE;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkScan<A> {
+        void scan(A accumulator, int from, int to);
+    }
+
+    private static <A> A scan(int size, Supplier<A> init, ChunkScan<A> chunk, BinaryOperator<A> merge) {
+        int chunks = (size + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(k -> {
+                    A acc = init.get();
+                    chunk.scan(acc, k * CHUNK_ROWS, Math.min(size, (k + 1) * CHUNK_ROWS));
+                    return acc;
+                })
+                .reduce(merge)
+                .orElseGet(init);
+    }
+
+    private static long[] add(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) a[i] += b[i];
+        return a;
+    }
+
+    /**
+     * Accumulation ligne à ligne pendant le parcours du curseur, tableaux agrandis par doublement.
+     */
+    static final class Builder {
+        private final Dictionary<Integer> champions = new Dictionary<>();
+        private final Map<Integer, String> championNames = new HashMap<>();
+        private final Dictionary<String> positions = new Dictionary<>();
+        private final Dictionary<Integer> queues = new Dictionary<>();
+        private final Dictionary<String> platforms = new Dictionary<>();
+
+        private int rows;
+        private short[] champion, kills, deaths, assists, queue, platform;
+        private byte[] position;
+        private long[] win, start;
+        private int[] gold;
+
+        private int matches;
+        private short[] matchQueue, matchPlatform;
+        private long[] matchStart;
+        private int[] duration;
+
+        private int currentQueue, currentPlatform;
+        private long currentStart;
+
+        Builder(int expectedMatches) {
+            int m = Math.max(16, expectedMatches);
+            int r = m * 10;
+            champion = new short[r];
+            kills = new short[r];
+            deaths = new short[r];
+            assists = new short[r];
+            queue = new short[r];
+            platform = new short[r];
+            position = new byte[r];
+            win = new long[(r + 63) >>> 6];
+            start = new long[r];
+            gold = new int[r];
+            matchQueue = new short[m];
+            matchPlatform = new short[m];
+            matchStart = new long[m];
+            duration = new int[m];
+        }
+
+        void match(Integer queueId, String platformId, Long gameStart, Integer gameDuration) {
+            if (matches == duration.length) {
+                int n = matches * 2;
+                matchQueue = Arrays.copyOf(matchQueue, n);
+                matchPlatform = Arrays.copyOf(matchPlatform, n);
+                matchStart = Arrays.copyOf(matchStart, n);
+                duration = Arrays.copyOf(duration, n);
+            }
+            currentQueue = code16(queues.encode(queueId), "queueId");
+            currentPlatform = code16(platforms.encode(platformId), "platformId");
+            currentStart = gameStart == null ? 0L : gameStart;
+            matchQueue[matches] = (short) currentQueue;
+            matchPlatform[matches] = (short) currentPlatform;
+            matchStart[matches] = currentStart;
+            duration[matches] = gameDuration == null ? -1 : gameDuration;
+            matches++;
+        }
+
+        void participant(Integer championId, String championName, String individualPosition, Boolean won,
+                         Integer k, Integer d, Integer a, Integer goldEarned) {
+            if (rows == champion.length) grow(rows * 2);
+            champion[rows] = (short) code16(champions.encode(championId), "championId");
+            if (championId != null && championName != null) championNames.putIfAbsent(championId, championName);
+            int pos = positions.encode(individualPosition);
+            if (pos > Byte.MAX_VALUE) throw new IllegalStateException("Trop de valeurs distinctes pour position");
+            position[rows] = (byte) pos;
+            if (Boolean.TRUE.equals(won)) win[rows >>> 6] |= 1L << rows;
+            kills[rows] = clamp(k);
+            deaths[rows] = clamp(d);
+            assists[rows] = clamp(a);
+            gold[rows] = goldEarned == null ? 0 : goldEarned;
+            queue[rows] = (short) currentQueue;
+            platform[rows] = (short) currentPlatform;
+            start[rows] = currentStart;
+            rows++;
+        }
+
+        ParticipantColumns build() {
+            return new ParticipantColumns(this);
+        }
+
+        private void grow(int n) {
+            champion = Arrays.copyOf(champion, n);
+            kills = Arrays.copyOf(kills, n);
+            deaths = Arrays.copyOf(deaths, n);
+            assists = Arrays.copyOf(assists, n);
+            queue = Arrays.copyOf(queue, n);
+            platform = Arrays.copyOf(platform, n);
+            position = Arrays.copyOf(position, n);
+            win = Arrays.copyOf(win, (n + 63) >>> 6);
+            start = Arrays.copyOf(start, n);
+            gold = Arrays.copyOf(gold, n);
+        }
+
+        private static int code16(int code, String column) {
+            if (code > Short.MAX_VALUE) throw new IllegalStateException("Trop de valeurs distinctes pour " + column);
+            return code;
+        }
+
+        private static short clamp(Integer value) {
+            return value == null ? 0 : (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package but.bdd.riotstatsapi.analytics;
+
+public record RoleTally(String position, long games, long wins, double winrate,
+                        double avgKills, double avgDeaths, double avgAssists, double avgGold) {}
@@ -0,0 +1,60 @@
+package but.bdd.riotstatsapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Corps de réponse asynchrones (StreamingResponseBody : historiques, NDJSON, exports, suppressions en masse)
+ * sur un pool dédié et borné, au lieu d'applicationTaskExecutor (8 threads, file non bornée) partagé avec @Async.
+ * Pool et file pleins : 503 au lieu d'une attente sans limite derrière des clients lents.
+ * Délai asynchrone propre (riot.async.timeout, aucun par défaut) au lieu des 30 s de Tomcat, qui coupaient
+ * les exports et suppressions en masse en cours ; un client mort est coupé par le délai d'écriture du connecteur.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final boolean virtualThreads;
+    private final Duration timeout;
+
+    public AsyncConfig(@Value("${riot.async.max-threads:64}") int maxThreads,
+                       @Value("${riot.async.queue-capacity:64}") int queueCapacity,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                       @Value("${riot.async.timeout:-1ms}") Duration timeout) {
+        this.maxThreads = maxThreads;
+        this.queueCapacity = queueCapacity;
+        this.virtualThreads = virtualThreads;
+        this.timeout = timeout;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setVirtualThreads(virtualThreads);
+        // propagée telle quelle par WebAsyncManager puis résolue en réponse 503 lors du redispatch
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, retry later");
+        });
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        // négatif : pas de délai
+        configurer.setDefaultTimeout(timeout.isNegative() ? -1 : timeout.toMillis());
+    }
+}
@@ -0,0 +1,32 @@
+package but.bdd.riotstatsapi.config;
+
+import but.bdd.riotstatsapi.web.BulkheadInterceptor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Bulkheads sur /api/** hors /api/health ; placés après les GET conditionnels, un 304 ne consomme pas de permis.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadInterceptor.Settings.class)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    private final BulkheadInterceptor interceptor;
+    private final BulkheadInterceptor.Settings settings;
+
+    public BulkheadConfig(BulkheadInterceptor interceptor, BulkheadInterceptor.Settings settings) {
+        this.interceptor = interceptor;
+        this.settings = settings;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!settings.isEnabled()) return;
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/**")
+                .excludePathPatterns("/api/health")
+                .order(1);
+    }
+}
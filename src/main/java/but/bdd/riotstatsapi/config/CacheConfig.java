@@ -0,0 +1,39 @@
+package but.bdd.riotstatsapi.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheConfig.CacheSpecs.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheSpecs specs) {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.setCaffeine(Caffeine.from(specs.getDefaultSpec()).recordStats());
+        specs.getSpecs().forEach((name, spec) ->
+                manager.registerCustomCache(name, Caffeine.from(spec).recordStats().build()));
+        return manager;
+    }
+
+    /**
+     * Une spec Caffeine par cache (taille max, TTL), ex. maximumSize=1000,expireAfterWrite=60s.
+     */
+    @Data
+    @ConfigurationProperties("riot.cache")
+    public static class CacheSpecs {
+        private String defaultSpec = "maximumSize=1000,expireAfterWrite=60s";
+        private Map<String, String> specs = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,63 @@
+package but.bdd.riotstatsapi.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+/**
+ * Index déclarés sur les documents (@Indexed, @CompoundIndex), créés explicitement au démarrage plutôt que par
+ * spring.data.mongodb.auto-index-creation : chaque index est journalisé et un échec (doublons dans une collection
+ * écrite par le crawler, conflit d'options) n'empêche pas le démarrage. Exécuté avant la reconstruction des projections.
+ * riot.indexes.create-on-startup=false laisse la création des index à l'exploitation (voir README).
+ */
+@Configuration
+public class IndexConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexConfig.class);
+
+    @Bean
+    @Order(0)
+    public ApplicationRunner createIndexesOnStartup(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                                                    @Value("${riot.indexes.create-on-startup:true}") boolean enabled) {
+        return args -> {
+            if (!enabled) return;
+            IndexResolver resolver = IndexResolver.create(mappingContext);
+            int failed = 0;
+            for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+                if (!entity.isAnnotationPresent(Document.class)) continue;
+                for (IndexDefinition index : resolver.resolveIndexFor(entity.getTypeInformation())) {
+                    if (!ensureIndex(mongoTemplate, entity.getCollection(), index)) failed++;
+                }
+            }
+            if (failed > 0) log.warn("{} index non créés, voir les messages précédents", failed);
+        };
+    }
+
+    private static boolean ensureIndex(MongoTemplate mongoTemplate, String collection, IndexDefinition index) {
+        long start = System.nanoTime();
+        try {
+            String name = mongoTemplate.indexOps(collection).createIndex(index);
+            log.info("Index {}.{} prêt en {} ms", collection, name, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (DuplicateKeyException e) {
+            log.error("Index unique {} {} non créé sur {} : doublons à supprimer (voir README), puis redémarrer. {}",
+                    index.getIndexKeys().toJson(), index.getIndexOptions().toJson(), collection, e.getMessage());
+        } catch (DataAccessException e) {
+            log.error("Index {} {} non créé sur {} : {}",
+                    index.getIndexKeys().toJson(), index.getIndexOptions().toJson(), collection, e.getMessage());
+        }
+        return false;
+    }
+}
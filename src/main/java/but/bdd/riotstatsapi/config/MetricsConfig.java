@@ -0,0 +1,72 @@
+package but.bdd.riotstatsapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(MetricsConfig.HistogramSettings.class)
+public class MetricsConfig {
+
+    private static final double[] COARSE_BUCKETS = {
+            Duration.ofMillis(50).toNanos(), Duration.ofMillis(250).toNanos(), Duration.ofSeconds(1).toNanos()
+    };
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetrics(MeterRegistry registry) {
+        return settings -> settings.addCommandListener(new MongoCommandMetricsListener(registry));
+    }
+
+    /**
+     * Histogrammes de percentiles sur http.server.requests pour les seules URIs configurées
+     * (riot.metrics.histograms.uris), pour ne pas multiplier les séries sur les endpoints peu coûteux.
+     */
+    @Bean
+    public MeterFilter httpHistogramsFilter(HistogramSettings settings) {
+        AntPathMatcher matcher = new AntPathMatcher();
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!"http.server.requests".equals(id.getName())) return config;
+                String uri = id.getTag("uri");
+                if (uri == null || settings.getUris().stream().noneMatch(pattern -> matcher.match(pattern, uri))) {
+                    // Prometheus impose un même type pour toutes les séries d'un nom : quelques buckets fixes suffisent
+                    return DistributionStatisticConfig.builder()
+                            .serviceLevelObjectives(COARSE_BUCKETS)
+                            .build()
+                            .merge(config);
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(settings.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Data
+    @ConfigurationProperties("riot.metrics.histograms")
+    public static class HistogramSettings {
+        private List<String> uris = new ArrayList<>();
+        private List<Double> percentiles = new ArrayList<>();
+    }
+}
@@ -0,0 +1,91 @@
+package but.bdd.riotstatsapi.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence et nombre de documents renvoyés par commande Mongo, par collection.
+ * La collection n'est connue qu'au démarrage de la commande : elle est gardée par requestId jusqu'à la réponse.
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    private final MeterRegistry registry;
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String collection = collection(event.getCommand(), event.getCommandName());
+        if (collection != null) collections.put(event.getRequestId(), collection);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.getOrDefault(event.getRequestId(), "unknown");
+        collections.remove(event.getRequestId());
+        timer(event.getCommandName(), collection, "success").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        long documents = documents(event.getResponse());
+        if (documents >= 0) {
+            DistributionSummary.builder("riot.mongo.command.documents")
+                    .description("Documents renvoyés ou affectés par commande")
+                    .tag("command", event.getCommandName())
+                    .tag("collection", collection)
+                    .register(registry)
+                    .record(documents);
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        String collection = collections.getOrDefault(event.getRequestId(), "unknown");
+        collections.remove(event.getRequestId());
+        timer(event.getCommandName(), collection, "failure").record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String command, String collection, String status) {
+        return Timer.builder("riot.mongo.command")
+                .description("Durée des commandes Mongo")
+                .tag("command", command)
+                .tag("collection", collection)
+                .tag("status", status)
+                .register(registry);
+    }
+
+    private static String collection(BsonDocument command, String commandName) {
+        BsonValue value = command.get(commandName);
+        if (value != null && value.isString()) return value.asString().getValue();
+        BsonValue getMoreCollection = command.get("collection");
+        if (getMoreCollection != null && getMoreCollection.isString()) return getMoreCollection.asString().getValue();
+        return null;
+    }
+
+    private static long documents(BsonDocument response) {
+        if (response == null) return -1;
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonDocument c = cursor.asDocument();
+            BsonValue batch = c.containsKey("firstBatch") ? c.get("firstBatch") : c.get("nextBatch");
+            if (batch instanceof BsonArray array) return array.size();
+        }
+        BsonValue n = response.get("n");
+        if (n != null && n.isNumber()) return n.asNumber().longValue();
+        BsonValue values = response.get("values");
+        if (values instanceof BsonArray array) return array.size();
+        return -1;
+    }
+}
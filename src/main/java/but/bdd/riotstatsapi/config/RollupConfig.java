@@ -0,0 +1,34 @@
+package but.bdd.riotstatsapi.config;
+
+import but.bdd.riotstatsapi.repository.MatchRepository;
+import but.bdd.riotstatsapi.repository.RollupBootstrap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Projections au démarrage : reconstruction complète (rebuild-on-startup) ou seulement de celles qui sont vides
+ * alors que match_data ne l'est pas (rebuild-if-empty, par défaut). Exécuté avant que l'instance ne se déclare prête.
+ */
+@Configuration
+public class RollupConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupConfig.class);
+
+    @Bean
+    public ApplicationRunner rebuildRollupsOnStartup(MatchRepository repo, RollupBootstrap bootstrap,
+                                                     @Value("${riot.rollups.rebuild-on-startup:false}") boolean rebuildAll,
+                                                     @Value("${riot.rollups.rebuild-if-empty:true}") boolean rebuildEmpty) {
+        return args -> {
+            if (rebuildAll) {
+                log.info("Rollups reconstruits: {}", repo.rebuildRollups());
+            } else if (rebuildEmpty) {
+                var rebuilt = bootstrap.ensureAllBuilt();
+                if (!rebuilt.isEmpty()) log.info("Rollups vides reconstruits: {}", rebuilt);
+            }
+        };
+    }
+}
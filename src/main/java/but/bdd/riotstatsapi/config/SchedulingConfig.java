@@ -0,0 +1,14 @@
+package but.bdd.riotstatsapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tâches périodiques (instantanés du leaderboard, rafraîchissement analytics). Le planificateur a plusieurs
+ * threads (spring.task.scheduling.pool.size) : un rafraîchissement analytics de plusieurs minutes ne bloque
+ * pas les instantanés du leaderboard.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
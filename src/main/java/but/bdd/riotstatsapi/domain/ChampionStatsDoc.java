@@ -0,0 +1,29 @@
+package but.bdd.riotstatsapi.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Pré-agrégat de match_data : un document par (championId, queueId, platformId).
+ * Maintenu par {@link but.bdd.riotstatsapi.repository.ChampionStatsRollup}.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Document("champion_stats")
+@CompoundIndex(name = "champion_queue_platform", def = "{ 'championId': 1, 'queueId': 1, 'platformId': 1 }", unique = true)
+@CompoundIndex(name = "queue_platform", def = "{ 'queueId': 1, 'platformId': 1 }")
+public class ChampionStatsDoc {
+    @Id
+    @JsonIgnore
+    private ObjectId id;
+
+    private Integer championId;
+    private String championName;
+    private Integer queueId;
+    private String platformId;
+    private long games;
+    private long wins;
+}
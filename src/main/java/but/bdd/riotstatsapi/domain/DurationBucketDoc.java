@@ -0,0 +1,35 @@
+package but.bdd.riotstatsapi.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+
+/**
+ * Durées de partie agrégées par heure de début et par (queueId, platformId) : count, somme, extrêmes et
+ * histogramme à classes fixes (clé : borne basse de la classe en secondes).
+ * Maintenu par {@link but.bdd.riotstatsapi.repository.DurationBucketRollup}.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Document("duration_buckets")
+@CompoundIndex(name = "queue_platform_bucket", def = "{ 'queueId': 1, 'platformId': 1, 'bucketStart': 1 }", unique = true)
+public class DurationBucketDoc {
+    @Id
+    @JsonIgnore
+    private ObjectId id;
+
+    private Integer queueId;
+    private String platformId;
+    @Indexed
+    private long bucketStart;
+    private long count;
+    private long sum;
+    private Integer min;
+    private Integer max;
+    private Map<String, Long> histogram;
+}
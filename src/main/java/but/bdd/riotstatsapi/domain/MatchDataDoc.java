@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import lombok.*;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
@@ -15,6 +16,9 @@ import java.util.Map;
 
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 @Document(collection = "match_data")
+@CompoundIndex(name = "participants_puuid", def = "{ 'info.participants.puuid': 1 }")
+@CompoundIndex(name = "queue_platform_start", def = "{ 'info.queueId': 1, 'info.platformId': 1, 'info.gameStartTimestamp': 1 }")
+@CompoundIndex(name = "start", def = "{ 'info.gameStartTimestamp': 1 }")
 @JsonInclude(Include.NON_NULL)
 public class MatchDataDoc {
     @Id
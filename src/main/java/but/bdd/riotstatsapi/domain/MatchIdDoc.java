@@ -4,12 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 @Document(collection = "match_ids")
+@CompoundIndex(name = "tier_rank_matchId", def = "{ 'tier': 1, 'rank': 1, 'matchId': 1 }")
 public class MatchIdDoc {
     @Id
     @JsonIgnore
@@ -0,0 +1,21 @@
+package but.bdd.riotstatsapi.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.*;
+
+/**
+ * Ligne d'historique d'un joueur : en-tête du match et sa seule entrée participant.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class MatchSummary {
+    private String matchId;
+    private Integer queueId;
+    private String platformId;
+    private Integer gameDuration;
+    private Long gameStartTimestamp;
+    private Long gameEndTimestamp;
+    private String gameVersion;
+    private MatchDataDoc.Participant participant;
+}
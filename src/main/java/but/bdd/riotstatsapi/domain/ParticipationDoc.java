@@ -0,0 +1,41 @@
+package but.bdd.riotstatsapi.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Une ligne par (matchId, puuid), dénormalisée depuis info.participants de match_data.
+ * Maintenue par {@link but.bdd.riotstatsapi.repository.ParticipationProjection}.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Document("participations")
+@CompoundIndexes({
+        @CompoundIndex(name = "match_puuid", def = "{ 'matchId': 1, 'puuid': 1 }", unique = true),
+        @CompoundIndex(name = "puuid_start", def = "{ 'puuid': 1, 'gameStartTimestamp': -1 }"),
+        @CompoundIndex(name = "champion_position", def = "{ 'championName': 1, 'position': 1 }")
+})
+public class ParticipationDoc {
+    @Id
+    @JsonIgnore
+    private ObjectId id;
+
+    private String matchId;
+    private String puuid;
+    private String riotName;
+    private Integer championId;
+    private String championName;
+    private String position;
+    private Boolean win;
+    private Integer kills;
+    private Integer deaths;
+    private Integer assists;
+    private Integer goldEarned;
+    private Integer queueId;
+    private String platformId;
+    private Long gameStartTimestamp;
+}
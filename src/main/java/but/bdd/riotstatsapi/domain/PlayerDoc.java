@@ -4,12 +4,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
 @Data @Builder @NoArgsConstructor @AllArgsConstructor
 @Document("players")
+@CompoundIndex(name = "tier_rank_lp", def = "{ 'tier': 1, 'rank': 1, 'leaguePoints': 1 }")
 public class PlayerDoc {
     @Id
     @JsonIgnore
@@ -0,0 +1,39 @@
+package but.bdd.riotstatsapi.domain;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+
+/**
+ * Sommes courantes des performances d'un joueur (_id = puuid) : au total, par individualPosition et par championId.
+ * Maintenu par {@link but.bdd.riotstatsapi.repository.PlayerProfileProjection}.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Document("player_profiles")
+public class PlayerProfileDoc {
+    @Id
+    private String puuid;
+
+    private Sums totals;
+    private Map<String, Sums> roles;
+    private Map<String, Sums> champions;
+
+    /**
+     * Compteurs additifs ; durationSeconds cumule gameDuration pour les moyennes par minute.
+     */
+    @Data @NoArgsConstructor @AllArgsConstructor
+    public static class Sums {
+        private String championName;
+        private long games;
+        private long wins;
+        private long kills;
+        private long deaths;
+        private long assists;
+        private long goldEarned;
+        private long minionsKilled;
+        private long damageToChampions;
+        private long durationSeconds;
+    }
+}
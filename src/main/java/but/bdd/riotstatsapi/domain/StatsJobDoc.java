@@ -0,0 +1,41 @@
+package but.bdd.riotstatsapi.domain;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête de statistiques exécutée en arrière-plan et son résultat. pendingKey (clé de déduplication) n'est posé
+ * que tant que le job est PENDING ou RUNNING : l'index unique partiel interdit deux jobs identiques en attente.
+ * Supprimé par l'index TTL à expireAt.
+ */
+@Data @Builder @NoArgsConstructor @AllArgsConstructor
+@Document("stats_jobs")
+public class StatsJobDoc {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    @Id
+    private String id;
+
+    private String type;
+    private Map<String, Object> params;
+    private Status status;
+
+    @Indexed(name = "pending_key", unique = true, partialFilter = "{ 'pendingKey': { $exists: true } }")
+    private String pendingKey;
+
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    @Indexed(name = "expire_at", expireAfter = "0s")
+    private Instant expireAt;
+
+    private List<org.bson.Document> result;
+    private String error;
+}
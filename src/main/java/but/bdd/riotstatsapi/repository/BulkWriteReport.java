@@ -0,0 +1,47 @@
+package but.bdd.riotstatsapi.repository;
+
+import com.mongodb.bulk.BulkWriteResult;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Résultat d'un lot d'upserts non ordonné : compteurs Mongo et écritures en échec (index dans le lot).
+ * projectionError : le lot est écrit mais la mise à jour des projections a échoué, elles sont à reconstruire.
+ */
+public record BulkWriteReport(int size, int upserted, int matched, int modified, List<Failure> failures,
+                              String projectionError) {
+
+    public record Failure(int index, String key, String error) {}
+
+    BulkWriteReport withProjectionError(String error) {
+        return new BulkWriteReport(size, upserted, matched, modified, failures, error);
+    }
+
+    public Set<Integer> failedIndexes() {
+        return failures.stream().map(Failure::index).collect(Collectors.toSet());
+    }
+
+    /**
+     * Exécute le lot ; en mode non ordonné Mongo applique toutes les écritures valides, les erreurs sont rapportées par index.
+     */
+    static BulkWriteReport execute(BulkOperations ops, List<String> keys) {
+        if (keys.isEmpty()) return new BulkWriteReport(0, 0, 0, 0, List.of(), null);
+        try {
+            return of(keys.size(), ops.execute(), List.of());
+        } catch (BulkOperationException e) {
+            List<Failure> failures = e.getErrors().stream()
+                    .map(err -> new Failure(err.getIndex(), keys.get(err.getIndex()), err.getMessage()))
+                    .toList();
+            return of(keys.size(), e.getResult(), failures);
+        }
+    }
+
+    private static BulkWriteReport of(int size, BulkWriteResult result, List<Failure> failures) {
+        return new BulkWriteReport(size, result.getUpserts().size(), result.getMatchedCount(),
+                result.getModifiedCount(), failures, null);
+    }
+}
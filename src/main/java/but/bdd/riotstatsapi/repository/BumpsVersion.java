@@ -0,0 +1,14 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.lang.annotation.*;
+
+/**
+ * Incrémente la version des collections indiquées dans {@link DataVersions} au retour de la méthode,
+ * y compris en cas d'exception (écriture partielle possible), et après l'éviction des caches.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BumpsVersion {
+    String[] value();
+}
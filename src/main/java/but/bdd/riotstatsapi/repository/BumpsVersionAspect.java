@@ -0,0 +1,33 @@
+package but.bdd.riotstatsapi.repository;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ordonné avant l'intercepteur de cache (LOWEST_PRECEDENCE), mais après ExposeInvocationInterceptor :
+ * la version ne change qu'une fois les caches évincés, sinon une lecture concurrente pourrait associer
+ * la nouvelle version à une valeur encore en cache.
+ */
+@Aspect
+@Component
+@Order(0)
+class BumpsVersionAspect {
+
+    private final DataVersions versions;
+
+    BumpsVersionAspect(DataVersions versions) {
+        this.versions = versions;
+    }
+
+    @Around("@annotation(bumps)")
+    public Object bump(ProceedingJoinPoint pjp, BumpsVersion bumps) throws Throwable {
+        try {
+            return pjp.proceed();
+        } finally {
+            versions.bump(bumps.value());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.util.List;
+
+/**
+ * Matchups de couloir (même individualPosition, équipe adverse) et synergies (même équipe) d'un champion.
+ */
+public record ChampionMatchupsView(int championId, String championName, long matches,
+                                   List<MatchupView> matchups, List<MatchupView> synergies) {}
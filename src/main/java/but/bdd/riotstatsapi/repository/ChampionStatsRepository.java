@@ -0,0 +1,39 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.ChampionStatsDoc;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface ChampionStatsRepository extends MongoRepository<ChampionStatsDoc, String> {
+
+    @Aggregation(pipeline = {
+        "{ $group: { _id: '$championId', count: { $sum: '$games' }, championName: { $first: '$championName' } } }",
+        "{ $sort: { count: -1 } }",
+        "{ $limit: ?0 }",
+        "{ $project: { _id: 0, championId: '$_id', championName: 1, count: 1 } }"
+    })
+    List<ChampionCountView> championFrequency(int limit);
+
+    @Aggregation(pipeline = {
+        "{ $match: ?0 }",
+        "{ $group: { _id: '$championId', " +
+        "games: { $sum: '$games' }, " +
+        "wins: { $sum: '$wins' }, " +
+        "championName: { $first: '$championName' } } }",
+        "{ $project: { _id: 0, championId: '$_id', championName: 1, games: 1, wins: 1, " +
+        "winrate: { $multiply: [ { $cond: [ { $eq: ['$games', 0] }, 0, { $divide: ['$wins', '$games'] } ] }, 100 ] } } }",
+        "{ $sort: { games: -1 } }"
+    })
+    List<WinrateByChampionView> winrateByChampion(Document filter);
+
+    default List<WinrateByChampionView> winrateByChampion(Integer queueId, String platformId) {
+        Criteria criteria = new Criteria();
+        if (queueId != null) criteria.and("queueId").is(queueId);
+        if (platformId != null) criteria.and("platformId").is(platformId);
+        return winrateByChampion(criteria.getCriteriaObject());
+    }
+}
@@ -0,0 +1,105 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.ChampionStatsDoc;
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Maintient la collection champion_stats à partir des écritures et suppressions de match_data.
+ */
+@Component
+public class ChampionStatsRollup implements MatchProjection {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ChampionStatsRollup(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public String collection() {
+        return "champion_stats";
+    }
+
+    @Override
+    public void onSaved(Collection<MatchDataDoc> matches) {
+        apply(matches, 1);
+    }
+
+    @Override
+    public void onDeleted(Collection<MatchDataDoc> matches) {
+        apply(matches, -1);
+        if (!matches.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("games").lte(0)), ChampionStatsDoc.class);
+        }
+    }
+
+    /**
+     * Recalcule entièrement champion_stats depuis match_data ($out remplace la collection de façon atomique).
+     */
+    @Override
+    public long rebuild() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.unwind("info.participants"),
+                ctx -> new Document("$group", new Document("_id", new Document()
+                        .append("championId", "$info.participants.championId")
+                        .append("queueId", "$info.queueId")
+                        .append("platformId", "$info.platformId"))
+                        .append("championName", new Document("$first", "$info.participants.championName"))
+                        .append("games", new Document("$sum", 1))
+                        .append("wins", new Document("$sum",
+                                new Document("$cond", List.of("$info.participants.win", 1, 0))))),
+                ctx -> new Document("$project", new Document("_id", 0)
+                        .append("championId", "$_id.championId")
+                        .append("queueId", "$_id.queueId")
+                        .append("platformId", "$_id.platformId")
+                        .append("championName", 1)
+                        .append("games", 1)
+                        .append("wins", 1)),
+                Aggregation.out(collection())
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        mongoTemplate.aggregate(aggregation, "match_data", Document.class);
+        return mongoTemplate.count(new Query(), ChampionStatsDoc.class);
+    }
+
+    private void apply(Collection<MatchDataDoc> matches, int sign) {
+        Map<Key, long[]> deltas = new LinkedHashMap<>();
+        Map<Key, String> names = new HashMap<>();
+        for (MatchDataDoc match : matches) {
+            var info = match.getInfo();
+            if (info == null || info.getParticipants() == null) continue;
+            for (var p : info.getParticipants()) {
+                var key = new Key(p.getChampionId(), info.getQueueId(), info.getPlatformId());
+                long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+                delta[0] += sign;
+                if (Boolean.TRUE.equals(p.getWin())) delta[1] += sign;
+                if (p.getChampionName() != null) names.putIfAbsent(key, p.getChampionName());
+            }
+        }
+        if (deltas.isEmpty()) return;
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChampionStatsDoc.class);
+        deltas.forEach((key, delta) -> {
+            Query query = Query.query(Criteria.where("championId").is(key.championId())
+                    .and("queueId").is(key.queueId())
+                    .and("platformId").is(key.platformId()));
+            Update update = new Update().inc("games", delta[0]).inc("wins", delta[1]);
+            if (names.containsKey(key)) update.set("championName", names.get(key));
+            ops.upsert(query, update);
+        });
+        ops.execute();
+    }
+
+    private record Key(Integer championId, Integer queueId, String platformId) {}
+}
@@ -0,0 +1,13 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.lang.annotation.*;
+
+/**
+ * Les appels simultanés avec des arguments égaux partagent une seule exécution et son résultat (ou son exception).
+ * Réservé aux lectures dont le résultat est immuable et réutilisable : ni Stream, ni objet modifié par l'appelant.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+}
@@ -0,0 +1,101 @@
+package but.bdd.riotstatsapi.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Single-flight des méthodes {@link Coalesced} : le premier appel d'une clé (méthode, arguments) l'exécute, les appels
+ * concurrents de même clé attendent son résultat. La clé est retirée dès la fin de l'exécution, les appels suivants
+ * repartent donc du cache ou de la base. Ordonné avant l'intercepteur de cache, comme {@link BumpsVersionAspect} :
+ * une rafale de défauts de cache sur la même clé ne produit qu'une requête.
+ * La clé porte la génération de {@link DataVersions} : un appel arrivé après une écriture ne rejoint pas une exécution
+ * commencée avant elle, et le résultat d'une exécution traversée par une écriture est retiré du cache où elle l'a mis
+ * (l'éviction de l'écriture a pu passer avant).
+ * Compteurs riot.coalescing.calls{method, outcome=executed|collapsed}.
+ */
+@Aspect
+@Component
+@Order(0)
+class CoalescingAspect {
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry registry;
+    private final DataVersions versions;
+    private final CacheManager cacheManager;
+
+    CoalescingAspect(MeterRegistry registry, DataVersions versions, CacheManager cacheManager) {
+        this.registry = registry;
+        this.versions = versions;
+        this.cacheManager = cacheManager;
+    }
+
+    @Around("@annotation(but.bdd.riotstatsapi.repository.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint pjp) throws Throwable {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        long generation = versions.generation();
+        Key key = new Key(method, Arrays.asList(pjp.getArgs()), generation);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+
+        if (running != null) {
+            count(method, "collapsed");
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            }
+        }
+
+        count(method, "executed");
+        try {
+            Object result = pjp.proceed();
+            if (versions.generation() != generation) evictCached(method, pjp.getArgs());
+            mine.complete(result);
+            return result;
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Clé par défaut de @Cacheable (SimpleKeyGenerator) ; toute la cache si la méthode en définit une autre.
+     */
+    private void evictCached(Method method, Object[] args) {
+        Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+        if (cacheable == null) return;
+        boolean defaultKey = cacheable.key().isEmpty() && cacheable.keyGenerator().isEmpty();
+        for (String name : cacheable.cacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache == null) continue;
+            if (defaultKey) cache.evict(SimpleKeyGenerator.generateKey(args));
+            else cache.clear();
+        }
+    }
+
+    private void count(Method method, String outcome) {
+        registry.counter("riot.coalescing.calls", "method", method.getName(), "outcome", outcome).increment();
+    }
+
+    private record Key(Method method, List<Object> args, long generation) {}
+}
@@ -0,0 +1,92 @@
+package but.bdd.riotstatsapi.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteur de version par collection, incrémenté après chaque écriture passant par les repositories.
+ * Local à l'instance : l'epoch tiré au démarrage garantit qu'une version ne désigne jamais deux états différents
+ * d'un redémarrage à l'autre ou d'une instance à l'autre. Les écritures faites hors de l'instance ne sont pas vues :
+ * la validité des ETag est bornée par ConditionalGetInterceptor.
+ */
+@Component
+public class DataVersions {
+
+    public static final String MATCH_DATA = "match_data";
+    public static final String MATCH_IDS = "match_ids";
+    public static final String CHAMPION_STATS = "champion_stats";
+    public static final String DURATION_BUCKETS = "duration_buckets";
+    public static final String PARTICIPATIONS = "participations";
+    public static final String PLAYER_PROFILES = "player_profiles";
+    public static final String LEADERBOARD = "leaderboard";
+    public static final String ANALYTICS = "analytics";
+
+    /**
+     * Instantanés en mémoire rafraîchis périodiquement : pas des écritures en base, ils n'avancent pas la génération.
+     */
+    private static final Set<String> SNAPSHOTS = Set.of(LEADERBOARD, ANALYTICS);
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final long startedAt = System.currentTimeMillis();
+    private final ConcurrentMap<String, Version> versions = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private static final class Version {
+        final AtomicLong counter = new AtomicLong();
+        volatile long modifiedAt;
+    }
+
+    public void bump(String... collections) {
+        long now = System.currentTimeMillis();
+        boolean stored = false;
+        for (String collection : collections) {
+            Version version = versions.computeIfAbsent(collection, c -> new Version());
+            version.counter.incrementAndGet();
+            version.modifiedAt = now;
+            stored |= !SNAPSHOTS.contains(collection);
+        }
+        if (stored) generation.incrementAndGet();
+    }
+
+    public void bump(Collection<String> collections) {
+        bump(collections.toArray(String[]::new));
+    }
+
+    /**
+     * Nombre d'écritures en base terminées, toutes collections confondues : une lecture commencée sous une
+     * génération antérieure a pu lire l'état d'avant l'écriture.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Identifiant opaque de l'état courant des collections, dans l'ordre donné.
+     */
+    public String tag(String... collections) {
+        StringBuilder sb = new StringBuilder(epoch);
+        for (String collection : collections) {
+            Version version = versions.get(collection);
+            sb.append(':').append(collection).append('=').append(version == null ? 0 : version.counter.get());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Date de la dernière écriture sur l'une des collections, ou du démarrage de l'instance à défaut.
+     */
+    public long lastModified(String... collections) {
+        long last = startedAt;
+        for (String collection : collections) {
+            Version version = versions.get(collection);
+            if (version != null) last = Math.max(last, version.modifiedAt);
+        }
+        return last;
+    }
+}
@@ -4,29 +4,85 @@ import but.bdd.riotstatsapi.domain.Rank;
 import but.bdd.riotstatsapi.domain.Tier;
 import but.bdd.riotstatsapi.domain.MatchDataDoc;
 import but.bdd.riotstatsapi.domain.MatchIdDoc;
+import but.bdd.riotstatsapi.domain.MatchSummary;
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Component
+@Timed(value = "riot.match.repository", histogram = true)
 public class DefaultMatchRepository implements MatchRepository {
 
+    private static final Logger log = LoggerFactory.getLogger(DefaultMatchRepository.class);
+
     private final MatchIdRepository matchIdRepository;
     private final MatchDataRepository matchDataRepository;
+    private final ChampionStatsRepository championStatsRepository;
+    private final ParticipationRepository participationRepository;
+    private final List<MatchProjection> projections;
+    private final DurationBucketRollup durationBuckets;
+    private final MatchupComputation matchups;
+    private final PlayerProfileProjection profiles;
+    private final RollupBootstrap bootstrap;
+    private final CacheManager cacheManager;
+    private final DataVersions versions;
+    private final TransactionTemplate transactionTemplate;
 
     public DefaultMatchRepository(MatchIdRepository matchIdRepository,
-                                         MatchDataRepository matchDataRepository) {
+                                         MatchDataRepository matchDataRepository,
+                                         ChampionStatsRepository championStatsRepository,
+                                         ParticipationRepository participationRepository,
+                                         List<MatchProjection> projections,
+                                         DurationBucketRollup durationBuckets,
+                                         MatchupComputation matchups,
+                                         PlayerProfileProjection profiles,
+                                         RollupBootstrap bootstrap,
+                                         CacheManager cacheManager,
+                                         DataVersions versions,
+                                         TransactionTemplate transactionTemplate) {
         this.matchIdRepository = matchIdRepository;
         this.matchDataRepository = matchDataRepository;
+        this.championStatsRepository = championStatsRepository;
+        this.participationRepository = participationRepository;
+        this.projections = projections;
+        this.durationBuckets = durationBuckets;
+        this.matchups = matchups;
+        this.profiles = profiles;
+        this.bootstrap = bootstrap;
+        this.cacheManager = cacheManager;
+        this.versions = versions;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
-    public List<MatchIdDoc> listMatchIds(Tier tier, Rank rank) {
-        if (tier != null && rank != null) {
-            return matchIdRepository.findAllByTierAndRank(tier, rank);
-        }
-        return matchIdRepository.findAll();
+    public List<MatchIdDoc> listMatchIds(Tier tier, Rank rank, String afterMatchId, int limit) {
+        return matchIdRepository.findPage(tier, rank, afterMatchId, limit);
+    }
+
+    @Override
+    public Stream<MatchIdDoc> streamMatchIds(Tier tier, Rank rank) {
+        return matchIdRepository.streamByFilters(tier, rank);
     }
 
     @Override
@@ -35,76 +91,237 @@ public class DefaultMatchRepository implements MatchRepository {
     }
 
     @Override
+    @Coalesced
     public long countMatchIds(Tier tier, Rank rank) {
         return matchIdRepository.countByOptionalFilters(tier, rank);
     }
 
     @Override
+    public long estimatedMatchIdCount() {
+        return matchIdRepository.estimatedCount();
+    }
+
+    @Override
+    @Coalesced
+    @Cacheable(MatchCaches.DISTINCT_TIERS)
     public List<String> distinctTiers() {
         return matchIdRepository.distinctTiers();
     }
 
     @Override
+    @Coalesced
+    @Cacheable(MatchCaches.DISTINCT_RANKS)
     public List<String> distinctRanks() {
         return matchIdRepository.distinctRanks();
     }
 
+    /**
+     * Une absence n'est pas mise en cache : un match inséré ensuite hors de l'API doit être visible aussitôt.
+     */
     @Override
+    @Cacheable(cacheNames = MatchCaches.MATCH_DATA, unless = "#result == null")
     public Optional<MatchDataDoc> findMatchData(String matchId) {
         return matchDataRepository.findByMetadataMatchId(matchId);
     }
 
     @Override
-    public List<MatchDataDoc> findMatchesByPuuid(String puuid) {
-        return matchDataRepository.findAllByParticipantPuuid(puuid);
+    public Stream<MatchDataDoc> streamMatchesByPuuid(String puuid, Collection<String> fields) {
+        return matchDataRepository.streamByParticipantPuuid(puuid, fields);
+    }
+
+    @Override
+    public Stream<MatchSummary> streamMatchSummariesByPuuid(String puuid) {
+        return matchDataRepository.streamSummariesByParticipantPuuid(puuid);
     }
 
     @Override
     public long countMatchesByPuuid(String puuid) {
-        return matchDataRepository.findAllByParticipantPuuid(puuid).size();
+        return matchDataRepository.countByParticipantPuuid(puuid);
     }
 
     @Override
-    public boolean deleteEverywhere(String matchId) {
-        boolean deleted = false;
+    @Caching(evict = {
+            @CacheEvict(cacheNames = MatchCaches.MATCH_DATA, key = "#match.matchId"),
+            @CacheEvict(cacheNames = { MatchCaches.CHAMPION_STATISTICS, MatchCaches.DURATIONS, MatchCaches.MATCHUPS }, allEntries = true)
+    })
+    @BumpsVersion({ DataVersions.MATCH_DATA, DataVersions.CHAMPION_STATS, DataVersions.DURATION_BUCKETS,
+            DataVersions.PARTICIPATIONS, DataVersions.PLAYER_PROFILES })
+    public MatchDataDoc saveMatchData(MatchDataDoc match) {
+        var previous = matchDataRepository.findByMetadataMatchId(match.getMatchId());
+        previous.ifPresent(p -> match.setId(p.getId()));
+        MatchDataDoc saved = matchDataRepository.save(match);
+        previous.ifPresent(p -> projections.forEach(projection -> projection.onDeleted(List.of(p))));
+        projections.forEach(projection -> projection.onSaved(List.of(saved)));
+        return saved;
+    }
+
+    /**
+     * Upsert d'un lot de match_data en un seul bulkWrite ; les projections reçoivent l'ancienne et la nouvelle
+     * version des seuls documents écrits avec succès. Un échec des projections après l'écriture ne fait pas échouer
+     * le lot (match_data est déjà à jour, le renvoyer fausserait les compteurs) : il est rapporté par projectionError.
+     */
+    @Override
+    @CacheEvict(cacheNames = { MatchCaches.CHAMPION_STATISTICS, MatchCaches.DURATIONS, MatchCaches.MATCHUPS }, allEntries = true)
+    @BumpsVersion({ DataVersions.MATCH_DATA, DataVersions.CHAMPION_STATS, DataVersions.DURATION_BUCKETS,
+            DataVersions.PARTICIPATIONS, DataVersions.PLAYER_PROFILES })
+    public BulkWriteReport saveMatchDataBatch(List<MatchDataDoc> matches) {
+        List<String> ids = matches.stream().map(MatchDataDoc::getMatchId).toList();
+        List<MatchDataDoc> previous = matchDataRepository.findAllByMatchIdIn(ids);
+        BulkWriteReport report = matchDataRepository.upsertAll(matches);
 
-        var mid = matchIdRepository.findByMatchId(matchId);
-        if (mid.isPresent()) {
-            matchIdRepository.delete(mid.get());
-            deleted = true;
+        Set<Integer> failed = report.failedIndexes();
+        List<MatchDataDoc> written = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            if (!failed.contains(i)) written.add(matches.get(i));
         }
+        Set<String> writtenIds = written.stream().map(MatchDataDoc::getMatchId).collect(Collectors.toSet());
+        List<MatchDataDoc> replaced = previous.stream().filter(p -> writtenIds.contains(p.getMatchId())).toList();
+        Cache cache = cacheManager.getCache(MatchCaches.MATCH_DATA);
+        if (cache != null) writtenIds.forEach(cache::evict);
+        try {
+            if (!replaced.isEmpty()) projections.forEach(projection -> projection.onDeleted(replaced));
+            projections.forEach(projection -> projection.onSaved(written));
+        } catch (RuntimeException e) {
+            log.error("Lot de {} match_data écrit mais projections en échec : projections à reconstruire "
+                    + "(POST /api/matches/stats/rebuild)", written.size(), e);
+            return report.withProjectionError(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+        return report;
+    }
+
+    @Override
+    @CacheEvict(cacheNames = { MatchCaches.DISTINCT_TIERS, MatchCaches.DISTINCT_RANKS }, allEntries = true)
+    @BumpsVersion(DataVersions.MATCH_IDS)
+    public BulkWriteReport saveMatchIdBatch(List<MatchIdDoc> matchIds) {
+        return matchIdRepository.upsertAll(matchIds);
+    }
 
-        var mdata = matchDataRepository.findByMetadataMatchId(matchId);
-        if (mdata.isPresent()) {
-            matchDataRepository.delete(mdata.get());
-            deleted = true;
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = MatchCaches.MATCH_DATA, key = "#matchId"),
+            @CacheEvict(cacheNames = {
+                    MatchCaches.CHAMPION_STATISTICS, MatchCaches.DURATIONS, MatchCaches.MATCHUPS,
+                    MatchCaches.DISTINCT_TIERS, MatchCaches.DISTINCT_RANKS
+            }, allEntries = true)
+    })
+    @BumpsVersion({ DataVersions.MATCH_IDS, DataVersions.MATCH_DATA, DataVersions.CHAMPION_STATS,
+            DataVersions.DURATION_BUCKETS, DataVersions.PARTICIPATIONS, DataVersions.PLAYER_PROFILES })
+    public boolean deleteEverywhere(String matchId) {
+        long deletedIds = matchIdRepository.deleteAllByMatchIdIn(List.of(matchId));
+        var mdata = matchDataRepository.removeByMatchId(matchId);
+        mdata.ifPresent(m -> projections.forEach(projection -> projection.onDeleted(List.of(m))));
+        return deletedIds > 0 || mdata.isPresent();
+    }
+
+    /**
+     * Flux paresseux : chaque élément consommé supprime un lot et rapporte l'avancement.
+     */
+    @Override
+    public Stream<DeleteProgress> deleteMatches(MatchFilter filter, int batchSize, boolean transactional) {
+        var purge = new MatchPurge(matchIdRepository, matchDataRepository, projections, cacheManager, versions,
+                transactional ? transactionTemplate : null, filter, batchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(purge, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Documents bruts triés par matchId, après afterMatchId : un seul curseur sur match_data sans filtre tier/rank,
+     * sinon une jointure par pages avec match_ids.
+     */
+    @Override
+    public Stream<Document> exportMatches(MatchFilter filter, String afterMatchId, int batchSize) {
+        if (!filter.hasMatchIdFilters()) {
+            return matchDataRepository.streamDocuments(filter.matchIds(), filter, afterMatchId, batchSize);
         }
+        var export = new MatchExport(matchIdRepository, matchDataRepository, filter, afterMatchId, batchSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(export, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(export::close);
+    }
 
-        return deleted;
+    /**
+     * La fusion des buckets n'est exacte que si duration_buckets a été construite : vide alors que match_data ne l'est
+     * pas, seules les heures partielles des bornes seraient comptées. Elle est donc reconstruite avant la lecture.
+     */
+    @Override
+    @Coalesced
+    @Cacheable(MatchCaches.DURATIONS)
+    public DurationStats durationsStats(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo) {
+        bootstrap.ensureBuilt(DataVersions.DURATION_BUCKETS);
+        return durationBuckets.stats(queueId, platformId, startTimeFrom, startTimeTo);
     }
 
+    /**
+     * Un parcours complet de match_data par (queueId, platformId) : le résultat reste en cache jusqu'à la prochaine écriture.
+     */
     @Override
-    public List<DurationStatsView> durationsStats(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo) {
-        return matchDataRepository.durationsStats(queueId, platformId, startTimeFrom, startTimeTo);
+    @Coalesced
+    @Cacheable(MatchCaches.MATCHUPS)
+    public MatchupMatrix matchups(Integer queueId, String platformId) {
+        return matchups.compute(queueId, platformId);
     }
 
+    /**
+     * Lue dans champion_stats ; une réponse vide alors que match_data ne l'est pas déclenche la reconstruction.
+     */
     @Override
+    @Coalesced
     public List<ChampionCountView> championFrequency(int limit) {
-        return matchDataRepository.championFrequency(Math.max(1, Math.min(limit, 500)));
+        int n = Math.max(1, Math.min(limit, 500));
+        List<ChampionCountView> res = championStatsRepository.championFrequency(n);
+        if (res.isEmpty() && bootstrap.ensureBuilt(DataVersions.CHAMPION_STATS)) {
+            res = championStatsRepository.championFrequency(n);
+        }
+        return res;
     }
 
     @Override
+    @Coalesced
     public List<WinrateByChampionView> winrateByChampion(Integer queueId, String platformId) {
-        return matchDataRepository.winrateByChampion(queueId, platformId);
+        List<WinrateByChampionView> res = championStatsRepository.winrateByChampion(queueId, platformId);
+        if (res.isEmpty() && bootstrap.ensureBuilt(DataVersions.CHAMPION_STATS)) {
+            res = championStatsRepository.winrateByChampion(queueId, platformId);
+        }
+        return res;
+    }
+
+    /**
+     * Seul moyen de resynchroniser les projections après des écritures faites hors de l'API dans match_data.
+     */
+    @Override
+    @CacheEvict(cacheNames = { MatchCaches.CHAMPION_STATISTICS, MatchCaches.DURATIONS }, allEntries = true)
+    @BumpsVersion({ DataVersions.CHAMPION_STATS, DataVersions.DURATION_BUCKETS, DataVersions.PARTICIPATIONS,
+            DataVersions.PLAYER_PROFILES })
+    public Map<String, Long> rebuildRollups() {
+        Map<String, Long> res = new LinkedHashMap<>();
+        projections.forEach(projection -> res.put(projection.collection(), projection.rebuild()));
+        return res;
     }
 
+    /**
+     * Lue dans participations, reconstruite si elle est vide alors que match_data ne l'est pas.
+     */
     @Override
+    @Coalesced
     public PlayerRolesView getPlayerWithRolesStatistics(String puuid) {
-        return matchDataRepository.getPlayerWithRolesStatistics(puuid);
+        PlayerRolesView res = participationRepository.getPlayerWithRolesStatistics(puuid);
+        if (res == null && bootstrap.ensureBuilt(DataVersions.PARTICIPATIONS)) {
+            res = participationRepository.getPlayerWithRolesStatistics(puuid);
+        }
+        return res;
     }
 
     @Override
+    public Optional<PlayerProfileView> getPlayerProfile(String puuid) {
+        return profiles.profile(puuid);
+    }
+
+    @Override
+    @Coalesced
+    @Cacheable(cacheNames = MatchCaches.CHAMPION_STATISTICS, unless = "#result == null")
     public ChampionStatisticsView getChampionStatistics(String champion) {
-        return matchDataRepository.getChampionStatistics(champion);
+        ChampionStatisticsView res = participationRepository.getChampionStatistics(champion);
+        if (res == null && bootstrap.ensureBuilt(DataVersions.PARTICIPATIONS)) {
+            res = participationRepository.getChampionStatistics(champion);
+        }
+        return res;
     }
 }
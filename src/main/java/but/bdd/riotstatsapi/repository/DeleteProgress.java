@@ -0,0 +1,10 @@
+package but.bdd.riotstatsapi.repository;
+
+/**
+ * Avancement d'une suppression en masse, émis après chaque lot (compteurs du lot puis cumulés).
+ * rebuildRequired (lot en erreur uniquement) : match_data a pu être modifié sans les projections.
+ */
+public record DeleteProgress(int batch, long matchIds, long matchData,
+                             long totalMatchIds, long totalMatchData,
+                             String lastMatchId, long elapsedMs, String error,
+                             Boolean rebuildRequired) {}
@@ -0,0 +1,249 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.DurationBucketDoc;
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Maintient duration_buckets (une ligne par heure de début de partie et par (queueId, platformId))
+ * et répond aux statistiques de durée en fusionnant les buckets au lieu de parcourir match_data.
+ */
+@Component
+public class DurationBucketRollup implements MatchProjection {
+
+    static final long BUCKET_MILLIS = 3_600_000L;
+
+    private final MongoTemplate mongoTemplate;
+
+    public DurationBucketRollup(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public String collection() {
+        return "duration_buckets";
+    }
+
+    @Override
+    public void onSaved(Collection<MatchDataDoc> matches) {
+        Map<Key, Delta> deltas = deltas(matches);
+        if (deltas.isEmpty()) return;
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DurationBucketDoc.class);
+        deltas.forEach((key, delta) -> {
+            Update update = new Update().inc("count", delta.count).inc("sum", delta.sum)
+                    .min("min", delta.min).max("max", delta.max);
+            delta.bins.forEach((bin, n) -> update.inc("histogram." + bin, n));
+            ops.upsert(key.query(), update);
+        });
+        ops.execute();
+    }
+
+    /**
+     * Décrémente les compteurs puis recalcule exactement min et max des buckets touchés depuis match_data
+     * (un extrême retiré ne peut pas se déduire du bucket seul). Doit être appelé une fois match_data à jour.
+     */
+    @Override
+    public void onDeleted(Collection<MatchDataDoc> matches) {
+        Map<Key, Delta> deltas = deltas(matches);
+        if (deltas.isEmpty()) return;
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DurationBucketDoc.class);
+        deltas.forEach((key, delta) -> {
+            Update update = new Update().inc("count", -delta.count).inc("sum", -delta.sum);
+            delta.bins.forEach((bin, n) -> update.inc("histogram." + bin, -n));
+            ops.updateOne(key.query(), update);
+        });
+        ops.execute();
+
+        Map<Key, int[]> extremes = extremes(deltas.keySet());
+        BulkOperations fix = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DurationBucketDoc.class);
+        for (Key key : deltas.keySet()) {
+            int[] minMax = extremes.get(key);
+            if (minMax == null) {
+                fix.remove(key.query());
+            } else {
+                fix.updateOne(key.query(), new Update().set("min", minMax[0]).set("max", minMax[1]));
+                // bucket touché seulement (index queue/plateforme/heure), pas de parcours de duration_buckets
+                fix.remove(Query.query(key.criteria().and("count").lte(0)));
+            }
+        }
+        fix.execute();
+    }
+
+    /**
+     * Recalcule entièrement duration_buckets depuis match_data (regroupement par classe puis par heure, $out).
+     */
+    @Override
+    public long rebuild() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                ctx -> new Document("$match", new Document("info.gameDuration", new Document("$type", "number"))
+                        .append("info.gameStartTimestamp", new Document("$type", "number"))),
+                ctx -> new Document("$project", new Document("_id", 0)
+                        .append("queueId", "$info.queueId")
+                        .append("platformId", "$info.platformId")
+                        .append("duration", "$info.gameDuration")
+                        .append("bucketStart", new Document("$subtract", List.of("$info.gameStartTimestamp",
+                                new Document("$mod", List.of("$info.gameStartTimestamp", BUCKET_MILLIS)))))
+                        .append("bin", new Document("$min", List.of(DurationHistogram.OVERFLOW_BIN,
+                                new Document("$multiply", List.of(DurationHistogram.BIN_SECONDS,
+                                        new Document("$floor", new Document("$divide", List.of(
+                                                new Document("$max", List.of("$info.gameDuration", 0)),
+                                                DurationHistogram.BIN_SECONDS))))))))),
+                ctx -> new Document("$group", new Document("_id", new Document()
+                        .append("queueId", "$queueId")
+                        .append("platformId", "$platformId")
+                        .append("bucketStart", "$bucketStart")
+                        .append("bin", "$bin"))
+                        .append("n", new Document("$sum", 1L))
+                        .append("sum", new Document("$sum", "$duration"))
+                        .append("min", new Document("$min", "$duration"))
+                        .append("max", new Document("$max", "$duration"))),
+                ctx -> new Document("$group", new Document("_id", new Document()
+                        .append("queueId", "$_id.queueId")
+                        .append("platformId", "$_id.platformId")
+                        .append("bucketStart", "$_id.bucketStart"))
+                        .append("count", new Document("$sum", "$n"))
+                        .append("sum", new Document("$sum", "$sum"))
+                        .append("min", new Document("$min", "$min"))
+                        .append("max", new Document("$max", "$max"))
+                        .append("bins", new Document("$push", new Document()
+                                .append("k", new Document("$toString", new Document("$toInt", "$_id.bin")))
+                                .append("v", "$n")))),
+                ctx -> new Document("$project", new Document("_id", 0)
+                        .append("queueId", "$_id.queueId")
+                        .append("platformId", "$_id.platformId")
+                        .append("bucketStart", "$_id.bucketStart")
+                        .append("count", 1)
+                        .append("sum", 1)
+                        .append("min", 1)
+                        .append("max", 1)
+                        .append("histogram", new Document("$arrayToObject", "$bins"))),
+                Aggregation.out(collection())
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        mongoTemplate.aggregate(aggregation, "match_data", Document.class);
+        return mongoTemplate.count(new Query(), DurationBucketDoc.class);
+    }
+
+    /**
+     * Fusionne les heures entièrement couvertes par [startTimeFrom, startTimeTo] ; les heures partielles aux bornes
+     * sont lues dans match_data (index queue_platform_start ou start) pour garder un résultat exact, à condition que
+     * duration_buckets soit à jour (voir {@link RollupBootstrap}).
+     */
+    public DurationStats stats(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo) {
+        Long fullFrom = startTimeFrom == null ? null : ceil(startTimeFrom);
+        Long fullTo = startTimeTo == null ? null : floor(startTimeTo + 1);
+        DurationHistogram histogram = new DurationHistogram();
+
+        if (fullFrom != null && fullTo != null && fullFrom >= fullTo) {
+            scan(histogram, queueId, platformId, startTimeFrom, startTimeTo);
+            return histogram.toStats();
+        }
+
+        Criteria criteria = new Criteria();
+        if (queueId != null) criteria.and("queueId").is(queueId);
+        if (platformId != null) criteria.and("platformId").is(platformId);
+        if (fullFrom != null || fullTo != null) {
+            Criteria bucket = criteria.and("bucketStart");
+            if (fullFrom != null) bucket.gte(fullFrom);
+            if (fullTo != null) bucket.lt(fullTo);
+        }
+        try (var buckets = mongoTemplate.stream(Query.query(criteria), DurationBucketDoc.class)) {
+            buckets.forEach(histogram::merge);
+        }
+
+        if (fullFrom != null && startTimeFrom < fullFrom) scan(histogram, queueId, platformId, startTimeFrom, fullFrom - 1);
+        if (fullTo != null && fullTo <= startTimeTo) scan(histogram, queueId, platformId, fullTo, startTimeTo);
+        return histogram.toStats();
+    }
+
+    private void scan(DurationHistogram histogram, Integer queueId, String platformId, long from, long to) {
+        Criteria criteria = MatchDataFilters.of(queueId, platformId, from, to).and("info.gameDuration").ne(null);
+        Query query = Query.query(criteria);
+        query.fields().include("info.gameDuration").exclude("_id");
+        try (var docs = mongoTemplate.stream(query, Document.class, "match_data")) {
+            docs.forEach(doc -> histogram.add(doc.get("info", Document.class).get("gameDuration", Number.class).intValue()));
+        }
+    }
+
+    private Map<Key, int[]> extremes(Set<Key> keys) {
+        List<Criteria> ranges = keys.stream()
+                .map(key -> Criteria.where("info.queueId").is(key.queueId())
+                        .and("info.platformId").is(key.platformId())
+                        .and("info.gameStartTimestamp").gte(key.bucketStart()).lt(key.bucketStart() + BUCKET_MILLIS))
+                .toList();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(new Criteria().orOperator(ranges).and("info.gameDuration").ne(null)),
+                ctx -> new Document("$group", new Document("_id", new Document()
+                        .append("queueId", "$info.queueId")
+                        .append("platformId", "$info.platformId")
+                        .append("bucketStart", new Document("$subtract", List.of("$info.gameStartTimestamp",
+                                new Document("$mod", List.of("$info.gameStartTimestamp", BUCKET_MILLIS))))))
+                        .append("min", new Document("$min", "$info.gameDuration"))
+                        .append("max", new Document("$max", "$info.gameDuration")))
+        );
+        Map<Key, int[]> res = new HashMap<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, "match_data", Document.class)) {
+            Document id = row.get("_id", Document.class);
+            Key key = new Key(id.getInteger("queueId"), id.getString("platformId"), id.get("bucketStart", Number.class).longValue());
+            res.put(key, new int[] { row.get("min", Number.class).intValue(), row.get("max", Number.class).intValue() });
+        }
+        return res;
+    }
+
+    private static Map<Key, Delta> deltas(Collection<MatchDataDoc> matches) {
+        Map<Key, Delta> deltas = new LinkedHashMap<>();
+        for (MatchDataDoc match : matches) {
+            var info = match.getInfo();
+            if (info == null || info.getGameDuration() == null || info.getGameStartTimestamp() == null) continue;
+            var key = new Key(info.getQueueId(), info.getPlatformId(), floor(info.getGameStartTimestamp()));
+            deltas.computeIfAbsent(key, k -> new Delta()).add(info.getGameDuration());
+        }
+        return deltas;
+    }
+
+    static long floor(long timestamp) {
+        return Math.floorDiv(timestamp, BUCKET_MILLIS) * BUCKET_MILLIS;
+    }
+
+    static long ceil(long timestamp) {
+        return -Math.floorDiv(-timestamp, BUCKET_MILLIS) * BUCKET_MILLIS;
+    }
+
+    private record Key(Integer queueId, String platformId, long bucketStart) {
+        Criteria criteria() {
+            return Criteria.where("queueId").is(queueId)
+                    .and("platformId").is(platformId)
+                    .and("bucketStart").is(bucketStart);
+        }
+
+        Query query() {
+            return Query.query(criteria());
+        }
+    }
+
+    private static final class Delta {
+        long count, sum;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        final Map<String, Long> bins = new TreeMap<>();
+
+        void add(int duration) {
+            count++;
+            sum += duration;
+            min = Math.min(min, duration);
+            max = Math.max(max, duration);
+            bins.merge(String.valueOf(DurationHistogram.bin(duration)), 1L, Long::sum);
+        }
+    }
+}
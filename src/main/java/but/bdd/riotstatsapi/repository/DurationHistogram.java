@@ -0,0 +1,69 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.DurationBucketDoc;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulateur de durées : fusion de buckets et de durées isolées, puis calcul des statistiques.
+ */
+final class DurationHistogram {
+
+    static final int BIN_SECONDS = DurationStats.BIN_SECONDS;
+    static final int OVERFLOW_BIN = DurationStats.OVERFLOW_BIN;
+
+    private final TreeMap<Integer, Long> bins = new TreeMap<>();
+    private long count, sum;
+    private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+
+    static int bin(int duration) {
+        return DurationStats.bin(duration);
+    }
+
+    void add(int duration) {
+        count++;
+        sum += duration;
+        min = Math.min(min, duration);
+        max = Math.max(max, duration);
+        bins.merge(bin(duration), 1L, Long::sum);
+    }
+
+    void merge(DurationBucketDoc bucket) {
+        if (bucket.getCount() <= 0) return;
+        count += bucket.getCount();
+        sum += bucket.getSum();
+        if (bucket.getMin() != null) min = Math.min(min, bucket.getMin());
+        if (bucket.getMax() != null) max = Math.max(max, bucket.getMax());
+        if (bucket.getHistogram() != null) {
+            bucket.getHistogram().forEach((bin, n) -> {
+                if (n > 0) bins.merge(Integer.parseInt(bin), n, Long::sum);
+            });
+        }
+    }
+
+    DurationStats toStats() {
+        if (count == 0) return new DurationStats(0, 0, 0, 0.0, 0.0, 0.0, 0.0, BIN_SECONDS, Map.of());
+        return new DurationStats(count, min, max, (double) sum / count,
+                percentile(0.5), percentile(0.9), percentile(0.99), BIN_SECONDS, bins);
+    }
+
+    /**
+     * Interpolation linéaire dans la classe qui contient le rang, bornée par les extrêmes exacts.
+     */
+    private double percentile(double q) {
+        double rank = q * count;
+        long seen = 0;
+        for (var e : bins.entrySet()) {
+            long n = e.getValue();
+            if (seen + n >= rank) {
+                int lower = e.getKey();
+                int upper = lower == OVERFLOW_BIN ? max : lower + BIN_SECONDS;
+                double value = lower + (upper - lower) * ((rank - seen) / n);
+                return Math.max(min, Math.min(max, value));
+            }
+            seen += n;
+        }
+        return max;
+    }
+}
@@ -0,0 +1,20 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.util.Map;
+
+/**
+ * Statistiques de durée (secondes) ; côté Mongo, les percentiles sont estimés par interpolation dans l'histogramme,
+ * dont les clés sont les bornes basses des classes de binSeconds.
+ */
+public record DurationStats(long count, int min, int max, double avg,
+                            double p50, double p90, double p99,
+                            int binSeconds, Map<Integer, Long> histogram) {
+
+    public static final int BIN_SECONDS = 30;
+    /** Dernière classe, qui regroupe toutes les durées supérieures ou égales. */
+    public static final int OVERFLOW_BIN = 4800;
+
+    public static int bin(int duration) {
+        return Math.min(Math.max(duration, 0) / BIN_SECONDS * BIN_SECONDS, OVERFLOW_BIN);
+    }
+}
@@ -0,0 +1,37 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.PlayerDoc;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Champs de tri autorisés pour le leaderboard (le nom est celui attendu dans ?field=).
+ */
+public enum LeaderboardField {
+    LEAGUE_POINTS("leaguePoints", PlayerDoc::getLeaguePoints),
+    WINS("wins", PlayerDoc::getWins),
+    LOSSES("losses", PlayerDoc::getLosses),
+    WINRATE("winrate", p -> p.getWins() + p.getLosses() == 0 ? 0.0 : (double) p.getWins() / (p.getWins() + p.getLosses()));
+
+    private final String param;
+    private final ToDoubleFunction<PlayerDoc> value;
+
+    LeaderboardField(String param, ToDoubleFunction<PlayerDoc> value) {
+        this.param = param;
+        this.value = value;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public double valueOf(PlayerDoc player) {
+        return value.applyAsDouble(player);
+    }
+
+    public static Optional<LeaderboardField> fromParam(String param) {
+        return Arrays.stream(values()).filter(f -> f.param.equalsIgnoreCase(param)).findFirst();
+    }
+}
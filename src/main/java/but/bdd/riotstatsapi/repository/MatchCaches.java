@@ -0,0 +1,15 @@
+package but.bdd.riotstatsapi.repository;
+
+/**
+ * Noms des caches posés devant {@link MatchRepository}, configurables sous riot.cache.specs.
+ */
+public final class MatchCaches {
+    public static final String MATCH_DATA = "matchData";
+    public static final String CHAMPION_STATISTICS = "championStatistics";
+    public static final String DURATIONS = "durationsStats";
+    public static final String MATCHUPS = "matchups";
+    public static final String DISTINCT_TIERS = "distinctTiers";
+    public static final String DISTINCT_RANKS = "distinctRanks";
+
+    private MatchCaches() {}
+}
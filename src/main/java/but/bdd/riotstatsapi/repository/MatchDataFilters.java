@@ -0,0 +1,23 @@
+package but.bdd.riotstatsapi.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Filtres optionnels sur match_data, traduits en prédicats simples (index queue_platform_start).
+ */
+final class MatchDataFilters {
+
+    private MatchDataFilters() {}
+
+    static Criteria of(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo) {
+        Criteria criteria = new Criteria();
+        if (queueId != null) criteria.and("info.queueId").is(queueId);
+        if (platformId != null) criteria.and("info.platformId").is(platformId);
+        if (startTimeFrom != null || startTimeTo != null) {
+            Criteria start = criteria.and("info.gameStartTimestamp");
+            if (startTimeFrom != null) start.gte(startTimeFrom);
+            if (startTimeTo != null) start.lte(startTimeTo);
+        }
+        return criteria;
+    }
+}
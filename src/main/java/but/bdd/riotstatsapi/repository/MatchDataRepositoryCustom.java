@@ -0,0 +1,18 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import org.bson.Document;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface MatchDataRepositoryCustom {
+    Stream<MatchDataDoc> streamByParticipantPuuid(String puuid, Collection<String> fields);
+    BulkWriteReport upsertAll(List<MatchDataDoc> matches);
+    List<String> findMatchIds(Collection<String> within, MatchFilter filter, String afterMatchId, int limit);
+    Optional<MatchDataDoc> removeByMatchId(String matchId);
+    List<MatchDataDoc> removeAllByMatchIdIn(Collection<String> matchIds);
+    Stream<Document> streamDocuments(Collection<String> within, MatchFilter filter, String afterMatchId, int batchSize);
+}
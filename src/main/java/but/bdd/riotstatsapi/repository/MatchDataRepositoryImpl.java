@@ -0,0 +1,107 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import com.mongodb.ReadPreference;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+class MatchDataRepositoryImpl implements MatchDataRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
+    private final ReadPreference exportReadPreference;
+
+    MatchDataRepositoryImpl(MongoTemplate mongoTemplate,
+                            @Value("${riot.streaming.match-batch-size:100}") int cursorBatchSize,
+                            @Value("${riot.export.read-preference:secondaryPreferred}") String exportReadPreference) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
+        this.exportReadPreference = ReadPreference.valueOf(exportReadPreference);
+    }
+
+    /**
+     * Sans champs demandés, les documents sont renvoyés complets. Les champs sont validés avant l'ouverture du curseur.
+     */
+    @Override
+    public Stream<MatchDataDoc> streamByParticipantPuuid(String puuid, Collection<String> fields) {
+        Query query = Query.query(Criteria.where("info.participants.puuid").is(puuid))
+                .cursorBatchSize(cursorBatchSize);
+        if (!fields.isEmpty()) MatchFields.projection(fields).forEach(query.fields()::include);
+        return mongoTemplate.stream(query, MatchDataDoc.class);
+    }
+
+    @Override
+    public BulkWriteReport upsertAll(List<MatchDataDoc> matches) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MatchDataDoc.class);
+        List<String> keys = new ArrayList<>(matches.size());
+        for (MatchDataDoc match : matches) {
+            keys.add(match.getMatchId());
+            ops.replaceOne(Query.query(Criteria.where("metadata.matchId").is(match.getMatchId())), match,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        return BulkWriteReport.execute(ops, keys);
+    }
+
+    /**
+     * Identifiants (triés) des matchs correspondant aux filtres match_data, éventuellement restreints à {@code within}.
+     */
+    @Override
+    public List<String> findMatchIds(Collection<String> within, MatchFilter filter, String afterMatchId, int limit) {
+        Criteria criteria = MatchDataFilters.of(filter.queueId(), filter.platformId(), filter.startTimeFrom(), filter.startTimeTo());
+        if (within != null || afterMatchId != null) {
+            Criteria matchId = criteria.and("metadata.matchId");
+            if (within != null) matchId.in(within);
+            if (afterMatchId != null) matchId.gt(afterMatchId);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "metadata.matchId"))
+                .limit(limit);
+        query.fields().include("metadata.matchId");
+        return mongoTemplate.find(query, MatchDataDoc.class).stream().map(MatchDataDoc::getMatchId).toList();
+    }
+
+    /**
+     * Documents bruts (sans _id ni mapping) triés par matchId, lus selon riot.export.read-preference pour
+     * épargner le primaire ; le curseur n'expire pas et doit être fermé par l'appelant.
+     */
+    @Override
+    public Stream<Document> streamDocuments(Collection<String> within, MatchFilter filter, String afterMatchId, int batchSize) {
+        Criteria criteria = MatchDataFilters.of(filter.queueId(), filter.platformId(), filter.startTimeFrom(), filter.startTimeTo());
+        if (within != null || afterMatchId != null) {
+            Criteria matchId = criteria.and("metadata.matchId");
+            if (within != null) matchId.in(within);
+            if (afterMatchId != null) matchId.gt(afterMatchId);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "metadata.matchId"))
+                .cursorBatchSize(batchSize)
+                .noCursorTimeout()
+                .withReadPreference(exportReadPreference);
+        query.fields().exclude("_id");
+        return mongoTemplate.stream(query, Document.class, "match_data");
+    }
+
+    @Override
+    public Optional<MatchDataDoc> removeByMatchId(String matchId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(
+                Query.query(Criteria.where("metadata.matchId").is(matchId)), MatchDataDoc.class));
+    }
+
+    /**
+     * Deux allers-retours (lecture puis deleteMany sur les _id lus) ; les documents servent aux projections.
+     */
+    @Override
+    public List<MatchDataDoc> removeAllByMatchIdIn(Collection<String> matchIds) {
+        return mongoTemplate.findAllAndRemove(
+                Query.query(Criteria.where("metadata.matchId").in(matchIds)), MatchDataDoc.class);
+    }
+}
@@ -0,0 +1,65 @@
+package but.bdd.riotstatsapi.repository;
+
+import org.bson.Document;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Export filtré par tier/rank : les identifiants sont lus dans match_ids par pages (keyset sur matchId),
+ * puis chaque page ouvre un curseur sur match_data. Un seul curseur et une seule page en mémoire à la fois.
+ */
+class MatchExport implements Iterator<Document>, AutoCloseable {
+
+    private final MatchIdRepository matchIdRepository;
+    private final MatchDataRepository matchDataRepository;
+    private final MatchFilter filter;
+    private final int pageSize;
+
+    private String after;
+    private boolean exhausted;
+    private Stream<Document> page;
+    private Iterator<Document> current = Collections.emptyIterator();
+
+    MatchExport(MatchIdRepository matchIdRepository, MatchDataRepository matchDataRepository,
+                MatchFilter filter, String afterMatchId, int pageSize) {
+        this.matchIdRepository = matchIdRepository;
+        this.matchDataRepository = matchDataRepository;
+        this.filter = filter;
+        this.after = afterMatchId;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext() && !exhausted) {
+            close();
+            List<String> ids = matchIdRepository.findMatchIds(filter.matchIds(), filter.tier(), filter.rank(), after, pageSize);
+            if (ids.isEmpty()) {
+                exhausted = true;
+            } else {
+                after = ids.get(ids.size() - 1);
+                page = matchDataRepository.streamDocuments(ids, filter, null, pageSize);
+                current = page.iterator();
+            }
+        }
+        return current.hasNext();
+    }
+
+    @Override
+    public Document next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        if (page != null) {
+            page.close();
+            page = null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Chemins de match_data demandés par fields=... : validés avant d'ouvrir un curseur, pour répondre 400
+ * sans rien ouvrir côté Mongo.
+ */
+public final class MatchFields {
+
+    private static final Pattern FIELD = Pattern.compile("(metadata|info)(\\.[A-Za-z0-9_]+)*");
+
+    private MatchFields() {}
+
+    /**
+     * Valide les chemins demandés et retire ceux couverts par un parent (Mongo refuse les collisions de chemins).
+     * metadata.matchId est toujours inclus.
+     */
+    public static SortedSet<String> projection(Collection<String> fields) {
+        SortedSet<String> paths = new TreeSet<>();
+        paths.add("metadata.matchId");
+        for (String field : fields) {
+            String path = field.trim();
+            if (path.isEmpty()) continue;
+            if (!FIELD.matcher(path).matches()) {
+                throw new IllegalArgumentException("Invalid field: " + path);
+            }
+            paths.add(path);
+        }
+        paths.removeIf(path -> paths.stream().anyMatch(other -> path.startsWith(other + ".")));
+        return paths;
+    }
+}
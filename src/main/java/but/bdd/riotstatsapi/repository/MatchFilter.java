@@ -0,0 +1,27 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+
+import java.util.Collection;
+
+/**
+ * Sélection de matchs pour les opérations en masse : liste d'identifiants et/ou filtres
+ * sur match_data (file, plateforme, période) et match_ids (tier, rank). Les critères se cumulent.
+ */
+public record MatchFilter(Collection<String> matchIds,
+                          Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo,
+                          Tier tier, Rank rank) {
+
+    public boolean isEmpty() {
+        return matchIds == null && !hasMatchDataFilters() && !hasMatchIdFilters();
+    }
+
+    boolean hasMatchDataFilters() {
+        return queueId != null || platformId != null || startTimeFrom != null || startTimeTo != null;
+    }
+
+    boolean hasMatchIdFilters() {
+        return tier != null || rank != null;
+    }
+}
@@ -0,0 +1,19 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchIdDoc;
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface MatchIdRepositoryCustom {
+    List<MatchIdDoc> findPage(Tier tier, Rank rank, String afterMatchId, int limit);
+    Stream<MatchIdDoc> streamByFilters(Tier tier, Rank rank);
+    long countByOptionalFilters(Tier tier, Rank rank);
+    BulkWriteReport upsertAll(List<MatchIdDoc> matchIds);
+    List<String> findMatchIds(Collection<String> within, Tier tier, Rank rank, String afterMatchId, int limit);
+    long deleteAllByMatchIdIn(Collection<String> matchIds);
+    long estimatedCount();
+}
@@ -0,0 +1,97 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchIdDoc;
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+class MatchIdRepositoryImpl implements MatchIdRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
+
+    MatchIdRepositoryImpl(MongoTemplate mongoTemplate,
+                          @Value("${riot.streaming.cursor-batch-size:1000}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    @Override
+    public List<MatchIdDoc> findPage(Tier tier, Rank rank, String afterMatchId, int limit) {
+        Criteria criteria = filters(tier, rank);
+        if (afterMatchId != null) criteria.and("matchId").gt(afterMatchId);
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "matchId"))
+                .limit(limit);
+        return mongoTemplate.find(query, MatchIdDoc.class);
+    }
+
+    @Override
+    public Stream<MatchIdDoc> streamByFilters(Tier tier, Rank rank) {
+        Query query = Query.query(filters(tier, rank))
+                .with(Sort.by(Sort.Direction.ASC, "matchId"))
+                .cursorBatchSize(cursorBatchSize);
+        return mongoTemplate.stream(query, MatchIdDoc.class);
+    }
+
+    @Override
+    public long countByOptionalFilters(Tier tier, Rank rank) {
+        return mongoTemplate.count(Query.query(filters(tier, rank)), MatchIdDoc.class);
+    }
+
+    @Override
+    public BulkWriteReport upsertAll(List<MatchIdDoc> matchIds) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MatchIdDoc.class);
+        List<String> keys = new ArrayList<>(matchIds.size());
+        for (MatchIdDoc matchId : matchIds) {
+            keys.add(matchId.getMatchId());
+            ops.replaceOne(Query.query(Criteria.where("matchId").is(matchId.getMatchId())), matchId,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        return BulkWriteReport.execute(ops, keys);
+    }
+
+    @Override
+    public List<String> findMatchIds(Collection<String> within, Tier tier, Rank rank, String afterMatchId, int limit) {
+        Criteria criteria = filters(tier, rank);
+        if (within != null || afterMatchId != null) {
+            Criteria matchId = criteria.and("matchId");
+            if (within != null) matchId.in(within);
+            if (afterMatchId != null) matchId.gt(afterMatchId);
+        }
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "matchId"))
+                .limit(limit);
+        query.fields().include("matchId");
+        return mongoTemplate.find(query, MatchIdDoc.class).stream().map(MatchIdDoc::getMatchId).toList();
+    }
+
+    @Override
+    public long deleteAllByMatchIdIn(Collection<String> matchIds) {
+        return mongoTemplate.remove(Query.query(Criteria.where("matchId").in(matchIds)), MatchIdDoc.class)
+                .getDeletedCount();
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(MatchIdDoc.class);
+    }
+
+    private static Criteria filters(Tier tier, Rank rank) {
+        Criteria criteria = new Criteria();
+        if (tier != null) criteria.and("tier").is(tier);
+        if (rank != null) criteria.and("rank").is(rank);
+        return criteria;
+    }
+}
@@ -0,0 +1,20 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+
+import java.util.Collection;
+
+/**
+ * Collection dérivée de match_data, tenue à jour par {@link DefaultMatchRepository}
+ * à chaque écriture ou suppression de matchs, et reconstructible entièrement.
+ */
+public interface MatchProjection {
+
+    String collection();
+
+    void onSaved(Collection<MatchDataDoc> matches);
+
+    void onDeleted(Collection<MatchDataDoc> matches);
+
+    long rebuild();
+}
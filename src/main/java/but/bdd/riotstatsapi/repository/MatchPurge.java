@@ -0,0 +1,156 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Suppression en masse, un lot par appel à {@link #next()} : sélection des identifiants (liste fournie,
+ * page de match_ids ou page de match_data selon les filtres, pagination par matchId), puis deleteMany
+ * sur match_ids et match_data, éventuellement dans une transaction par lot.
+ * Hors transaction, un lot commencé va jusqu'aux projections même si le thread est interrompu entre-temps ;
+ * un échec après la suppression dans match_data est signalé (rebuildRequired) au lieu de laisser les projections
+ * dériver en silence.
+ */
+class MatchPurge implements Iterator<DeleteProgress> {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchPurge.class);
+
+    private final MatchIdRepository matchIdRepository;
+    private final MatchDataRepository matchDataRepository;
+    private final List<MatchProjection> projections;
+    private final CacheManager cacheManager;
+    private final DataVersions versions;
+    private final TransactionTemplate transaction;
+    private final MatchFilter filter;
+    private final int batchSize;
+    private final List<String> ids;
+    private final long start = System.nanoTime();
+
+    private int cursor;
+    private String after;
+    private boolean exhausted;
+    private List<String> pending;
+    private int batch;
+    private long totalMatchIds, totalMatchData;
+    private boolean projectionsStale;
+
+    MatchPurge(MatchIdRepository matchIdRepository, MatchDataRepository matchDataRepository,
+               List<MatchProjection> projections, CacheManager cacheManager, DataVersions versions,
+               TransactionTemplate transaction, MatchFilter filter, int batchSize) {
+        this.matchIdRepository = matchIdRepository;
+        this.matchDataRepository = matchDataRepository;
+        this.projections = projections;
+        this.cacheManager = cacheManager;
+        this.versions = versions;
+        this.transaction = transaction;
+        this.filter = filter;
+        this.batchSize = batchSize;
+        this.ids = filter.matchIds() == null ? null : new ArrayList<>(new TreeSet<>(filter.matchIds()));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pending == null && !exhausted) {
+            List<String> selected = select();
+            if (!selected.isEmpty()) pending = selected;
+        }
+        return pending != null;
+    }
+
+    @Override
+    public DeleteProgress next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        List<String> selected = pending;
+        pending = null;
+        try {
+            long[] deleted = transaction == null ? deleteUninterruptibly(selected) : transaction.execute(status -> delete(selected));
+            evict(selected);
+            totalMatchIds += deleted[0];
+            totalMatchData += deleted[1];
+            return progress(deleted[0], deleted[1], selected.get(selected.size() - 1), null);
+        } catch (RuntimeException e) {
+            exhausted = true;
+            if (transaction == null) evict(selected);
+            if (projectionsStale) {
+                log.error("Suppression en masse interrompue après match_data ({} .. {}) : projections à reconstruire "
+                        + "(POST /api/matches/stats/rebuild)", selected.get(0), selected.get(selected.size() - 1), e);
+            }
+            return progress(0, 0, selected.get(0), e.getMessage());
+        }
+    }
+
+    /**
+     * L'interruption (arrêt du serveur, annulation de la réponse) est différée à la fin du lot : elle arrête la
+     * suppression entre deux lots, quand match_data et les projections sont cohérents.
+     */
+    private long[] deleteUninterruptibly(List<String> selected) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            return delete(selected);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<String> select() {
+        if (ids != null) {
+            if (cursor >= ids.size()) {
+                exhausted = true;
+                return List.of();
+            }
+            List<String> selected = ids.subList(cursor, Math.min(cursor + batchSize, ids.size()));
+            cursor += selected.size();
+            if (filter.hasMatchIdFilters()) {
+                selected = matchIdRepository.findMatchIds(selected, filter.tier(), filter.rank(), null, batchSize);
+            }
+            if (filter.hasMatchDataFilters() && !selected.isEmpty()) {
+                selected = matchDataRepository.findMatchIds(selected, filter, null, batchSize);
+            }
+            return selected;
+        }
+        List<String> page = filter.hasMatchIdFilters()
+                ? matchIdRepository.findMatchIds(null, filter.tier(), filter.rank(), after, batchSize)
+                : matchDataRepository.findMatchIds(null, filter, after, batchSize);
+        if (page.size() < batchSize) exhausted = true;
+        if (page.isEmpty()) return page;
+        after = page.get(page.size() - 1);
+        if (filter.hasMatchIdFilters() && filter.hasMatchDataFilters()) {
+            return matchDataRepository.findMatchIds(page, filter, null, batchSize);
+        }
+        return page;
+    }
+
+    private long[] delete(List<String> selected) {
+        long matchIds = matchIdRepository.deleteAllByMatchIdIn(selected);
+        // hors transaction, un échec à partir d'ici peut laisser des documents supprimés sans mise à jour des projections
+        projectionsStale = transaction == null;
+        List<MatchDataDoc> removed = matchDataRepository.removeAllByMatchIdIn(selected);
+        if (!removed.isEmpty()) projections.forEach(projection -> projection.onDeleted(removed));
+        projectionsStale = false;
+        return new long[] { matchIds, removed.size() };
+    }
+
+    private void evict(List<String> selected) {
+        Cache matchData = cacheManager.getCache(MatchCaches.MATCH_DATA);
+        if (matchData != null) selected.forEach(matchData::evict);
+        for (String name : List.of(MatchCaches.CHAMPION_STATISTICS, MatchCaches.DURATIONS, MatchCaches.MATCHUPS,
+                MatchCaches.DISTINCT_TIERS, MatchCaches.DISTINCT_RANKS)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) cache.clear();
+        }
+        versions.bump(DataVersions.MATCH_IDS, DataVersions.MATCH_DATA, DataVersions.CHAMPION_STATS,
+                DataVersions.DURATION_BUCKETS, DataVersions.PARTICIPATIONS, DataVersions.PLAYER_PROFILES);
+    }
+
+    private DeleteProgress progress(long matchIds, long matchData, String lastMatchId, String error) {
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new DeleteProgress(batch++, matchIds, matchData, totalMatchIds, totalMatchData, lastMatchId, elapsedMs, error,
+                projectionsStale ? Boolean.TRUE : null);
+    }
+}
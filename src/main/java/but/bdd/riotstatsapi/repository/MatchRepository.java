@@ -4,28 +4,45 @@ import but.bdd.riotstatsapi.domain.Rank;
 import but.bdd.riotstatsapi.domain.Tier;
 import but.bdd.riotstatsapi.domain.MatchDataDoc;
 import but.bdd.riotstatsapi.domain.MatchIdDoc;
+import but.bdd.riotstatsapi.domain.MatchSummary;
+import org.bson.Document;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MatchRepository {
 
-    List<MatchIdDoc> listMatchIds(Tier tier, Rank rank);
+    List<MatchIdDoc> listMatchIds(Tier tier, Rank rank, String afterMatchId, int limit);
+    Stream<MatchIdDoc> streamMatchIds(Tier tier, Rank rank);
     Optional<MatchIdDoc> findMatchId(String matchId);
     long countMatchIds(Tier tier, Rank rank);
+    long estimatedMatchIdCount();
     List<String> distinctTiers();
     List<String> distinctRanks();
 
     Optional<MatchDataDoc> findMatchData(String matchId);
-    List<MatchDataDoc> findMatchesByPuuid(String puuid);
+    Stream<MatchDataDoc> streamMatchesByPuuid(String puuid, Collection<String> fields);
+    Stream<MatchSummary> streamMatchSummariesByPuuid(String puuid);
     long countMatchesByPuuid(String puuid);
 
+    MatchDataDoc saveMatchData(MatchDataDoc match);
+    BulkWriteReport saveMatchDataBatch(List<MatchDataDoc> matches);
+    BulkWriteReport saveMatchIdBatch(List<MatchIdDoc> matchIds);
     boolean deleteEverywhere(String matchId);
+    Stream<DeleteProgress> deleteMatches(MatchFilter filter, int batchSize, boolean transactional);
+    Stream<Document> exportMatches(MatchFilter filter, String afterMatchId, int batchSize);
 
-    List<DurationStatsView> durationsStats(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo);
+    DurationStats durationsStats(Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo);
+    MatchupMatrix matchups(Integer queueId, String platformId);
     List<ChampionCountView> championFrequency(int limit);
     List<WinrateByChampionView> winrateByChampion(Integer queueId, String platformId);
     PlayerRolesView getPlayerWithRolesStatistics(String puuid);
+    Optional<PlayerProfileView> getPlayerProfile(String puuid);
     ChampionStatisticsView getChampionStatistics(String champion);
 
+    Map<String, Long> rebuildRollups();
+
 }
@@ -0,0 +1,230 @@
+package but.bdd.riotstatsapi.repository;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Calcule les matrices de matchups et de synergies en un seul parcours de match_data : le curseur est lu par le
+ * thread appelant, qui encode les participants par lots ; chaque lot est découpé en fork/join et accumulé dans des
+ * matrices partielles, fusionnées au fil de l'eau. Au plus {@code 2 × parallélisme} lots restent en vol.
+ */
+@Component
+class MatchupComputation {
+
+    static final int BATCH_MATCHES = 8192;
+    static final int SPLIT_THRESHOLD = 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    MatchupComputation(MongoTemplate mongoTemplate,
+                       @Value("${riot.streaming.cursor-batch-size:1000}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    MatchupMatrix compute(Integer queueId, String platformId) {
+        Query query = Query.query(MatchDataFilters.of(queueId, platformId, null, null)).cursorBatchSize(cursorBatchSize);
+        query.fields()
+                .include("info.participants.championId", "info.participants.championName",
+                        "info.participants.teamId", "info.participants.individualPosition", "info.participants.win")
+                .exclude("_id");
+
+        Map<Integer, Integer> champions = new HashMap<>();
+        List<Integer> championIds = new ArrayList<>();
+        List<String> championNames = new ArrayList<>();
+        Map<String, Integer> positions = new HashMap<>();
+
+        int inFlight = Math.max(2, 2 * pool.getParallelism());
+        Deque<ForkJoinTask<Partial>> pending = new ArrayDeque<>();
+        Partial total = new Partial(0);
+        long matches = 0;
+
+        Batch batch = new Batch();
+        try (Stream<Document> docs = mongoTemplate.stream(query, Document.class, "match_data")) {
+            var it = docs.iterator();
+            while (it.hasNext()) {
+                Document info = it.next().get("info", Document.class);
+                List<Document> participants = info == null ? null : info.getList("participants", Document.class);
+                if (participants == null || participants.isEmpty()) continue;
+                matches++;
+                for (Document p : participants) {
+                    Number championId = p.get("championId", Number.class);
+                    if (championId == null) continue;
+                    int code = champions.computeIfAbsent(championId.intValue(), id -> {
+                        championIds.add(id);
+                        championNames.add(null);
+                        return championIds.size() - 1;
+                    });
+                    if (championNames.get(code) == null) championNames.set(code, p.getString("championName"));
+                    Number teamId = p.get("teamId", Number.class);
+                    batch.participant(code, teamId == null ? 0 : teamId.intValue(),
+                            position(positions, p.getString("individualPosition")), Boolean.TRUE.equals(p.getBoolean("win")));
+                }
+                batch.endMatch();
+
+                if (batch.matches == BATCH_MATCHES) {
+                    batch.size = championIds.size();
+                    pending.add(pool.submit(new Task(batch, 0, batch.matches)));
+                    batch = new Batch();
+                    if (pending.size() >= inFlight) total = total.merge(pending.poll().join());
+                }
+            }
+        } catch (RuntimeException e) {
+            pending.forEach(task -> task.cancel(false));
+            throw e;
+        }
+        if (batch.matches > 0) {
+            batch.size = championIds.size();
+            pending.add(pool.submit(new Task(batch, 0, batch.matches)));
+        }
+        while (!pending.isEmpty()) total = total.merge(pending.poll().join());
+
+        int n = championIds.size();
+        if (total.size < n) total = total.merge(new Partial(n));
+        return new MatchupMatrix(championIds.stream().mapToInt(Integer::intValue).toArray(),
+                championNames.toArray(String[]::new), matches,
+                total.laneGames, total.laneWins, total.synergyGames, total.synergyWins);
+    }
+
+    /**
+     * Code de position, ou -1 quand Riot n'en attribue pas (modes sans couloir) : exclu des matchups.
+     */
+    private static int position(Map<String, Integer> positions, String position) {
+        if (position == null || position.isEmpty() || "Invalid".equals(position)) return -1;
+        return positions.computeIfAbsent(position, p -> positions.size());
+    }
+
+    /**
+     * Participants d'un lot de parties, en colonnes ; les participants de la partie m occupent [starts[m], starts[m + 1]).
+     */
+    private static final class Batch {
+        int matches;
+        int participants;
+        int size;
+        int[] starts = new int[BATCH_MATCHES + 1];
+        int[] champion = new int[BATCH_MATCHES * 10];
+        int[] team = new int[BATCH_MATCHES * 10];
+        int[] position = new int[BATCH_MATCHES * 10];
+        int[] win = new int[BATCH_MATCHES * 10];
+
+        void participant(int championCode, int teamId, int positionCode, boolean won) {
+            if (participants == champion.length) {
+                int capacity = champion.length * 2;
+                champion = Arrays.copyOf(champion, capacity);
+                team = Arrays.copyOf(team, capacity);
+                position = Arrays.copyOf(position, capacity);
+                win = Arrays.copyOf(win, capacity);
+            }
+            champion[participants] = championCode;
+            team[participants] = teamId;
+            position[participants] = positionCode;
+            win[participants] = won ? 1 : 0;
+            participants++;
+        }
+
+        void endMatch() {
+            starts[++matches] = participants;
+        }
+    }
+
+    // jamais sérialisée : RecursiveTask hérite de Serializable via ForkJoinTask
+    @SuppressWarnings("serial")
+    private static final class Task extends RecursiveTask<Partial> {
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        Task(Batch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                Task left = new Task(batch, from, mid);
+                left.fork();
+                Partial right = new Task(batch, mid, to).compute();
+                return right.merge(left.join());
+            }
+            Partial partial = new Partial(batch.size);
+            int n = batch.size;
+            int[] champion = batch.champion, team = batch.team, position = batch.position, win = batch.win;
+            for (int m = from; m < to; m++) {
+                int end = batch.starts[m + 1];
+                for (int i = batch.starts[m]; i < end; i++) {
+                    int a = champion[i];
+                    for (int j = i + 1; j < end; j++) {
+                        int b = champion[j];
+                        int ab = a * n + b, ba = b * n + a;
+                        if (team[i] == team[j]) {
+                            partial.synergyGames[ab]++;
+                            partial.synergyGames[ba]++;
+                            partial.synergyWins[ab] += win[i];
+                            partial.synergyWins[ba] += win[j];
+                        } else if (position[i] >= 0 && position[i] == position[j]) {
+                            partial.laneGames[ab]++;
+                            partial.laneGames[ba]++;
+                            partial.laneWins[ab] += win[i];
+                            partial.laneWins[ba] += win[j];
+                        }
+                    }
+                }
+            }
+            return partial;
+        }
+    }
+
+    /**
+     * Matrices partielles ; la fusion agrandit si besoin à la taille du dictionnaire la plus récente.
+     */
+    private static final class Partial {
+        final int size;
+        final int[] laneGames;
+        final int[] laneWins;
+        final int[] synergyGames;
+        final int[] synergyWins;
+
+        Partial(int size) {
+            this.size = size;
+            this.laneGames = new int[size * size];
+            this.laneWins = new int[size * size];
+            this.synergyGames = new int[size * size];
+            this.synergyWins = new int[size * size];
+        }
+
+        Partial merge(Partial other) {
+            Partial into = size >= other.size ? this : other;
+            Partial from = into == this ? other : this;
+            for (int a = 0; a < from.size; a++) {
+                int src = a * from.size, dst = a * into.size;
+                for (int b = 0; b < from.size; b++) {
+                    into.laneGames[dst + b] += from.laneGames[src + b];
+                    into.laneWins[dst + b] += from.laneWins[src + b];
+                    into.synergyGames[dst + b] += from.synergyGames[src + b];
+                    into.synergyWins[dst + b] += from.synergyWins[src + b];
+                }
+            }
+            return into;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalInt;
+
+/**
+ * Matrices denses champion × champion (indices = codes du dictionnaire championIds), calculées en un passage sur
+ * match_data par {@link MatchupComputation}. La case [a * size + b] compte les parties de a face à / avec b,
+ * et les victoires de a.
+ */
+public final class MatchupMatrix {
+
+    private final int[] championIds;
+    private final String[] championNames;
+    private final long matches;
+    private final int[] laneGames;
+    private final int[] laneWins;
+    private final int[] synergyGames;
+    private final int[] synergyWins;
+
+    MatchupMatrix(int[] championIds, String[] championNames, long matches,
+                  int[] laneGames, int[] laneWins, int[] synergyGames, int[] synergyWins) {
+        this.championIds = championIds;
+        this.championNames = championNames;
+        this.matches = matches;
+        this.laneGames = laneGames;
+        this.laneWins = laneWins;
+        this.synergyGames = synergyGames;
+        this.synergyWins = synergyWins;
+    }
+
+    public int size() {
+        return championIds.length;
+    }
+
+    public long matches() {
+        return matches;
+    }
+
+    /**
+     * Code d'un champion désigné par son championId ou son nom (casse ignorée).
+     */
+    public OptionalInt find(String champion) {
+        if (champion == null || champion.isBlank()) return OptionalInt.empty();
+        String value = champion.trim();
+        if (value.chars().allMatch(Character::isDigit) && value.length() < 10) {
+            int id = Integer.parseInt(value);
+            for (int i = 0; i < championIds.length; i++) {
+                if (championIds[i] == id) return OptionalInt.of(i);
+            }
+            return OptionalInt.empty();
+        }
+        String name = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < championNames.length; i++) {
+            if (championNames[i] != null && championNames[i].toLowerCase(Locale.ROOT).equals(name)) return OptionalInt.of(i);
+        }
+        return OptionalInt.empty();
+    }
+
+    /**
+     * Ligne du champion dans chaque matrice, triée par nombre de parties décroissant.
+     */
+    public ChampionMatchupsView view(int code, int minGames, int limit) {
+        return new ChampionMatchupsView(championIds[code], championNames[code], matches,
+                row(laneGames, laneWins, code, minGames, limit),
+                row(synergyGames, synergyWins, code, minGames, limit));
+    }
+
+    private List<MatchupView> row(int[] games, int[] wins, int code, int minGames, int limit) {
+        int n = size();
+        int offset = code * n;
+        List<MatchupView> res = new ArrayList<>();
+        for (int other = 0; other < n; other++) {
+            int g = games[offset + other];
+            if (g == 0 || g < minGames) continue;
+            int w = wins[offset + other];
+            res.add(new MatchupView(championIds[other], championNames[other], g, w, 100.0 * w / g));
+        }
+        res.sort(Comparator.comparingInt(MatchupView::games).reversed().thenComparingInt(MatchupView::championId));
+        return res.size() > limit ? List.copyOf(res.subList(0, limit)) : res;
+    }
+}
@@ -0,0 +1,7 @@
+package but.bdd.riotstatsapi.repository;
+
+/**
+ * Parties jouées face à (matchups) ou avec (synergies) un autre champion ; winrate en pourcentage, du point de vue
+ * du champion demandé.
+ */
+public record MatchupView(int championId, String championName, int games, int wins, double winrate) {}
@@ -0,0 +1,104 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import but.bdd.riotstatsapi.domain.ParticipationDoc;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maintient la collection participations (une ligne par joueur et par match) depuis match_data.
+ */
+@Component
+public class ParticipationProjection implements MatchProjection {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ParticipationProjection(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public String collection() {
+        return "participations";
+    }
+
+    @Override
+    public void onSaved(Collection<MatchDataDoc> matches) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ParticipationDoc.class);
+        int count = 0;
+        for (MatchDataDoc match : matches) {
+            var info = match.getInfo();
+            if (info == null || info.getParticipants() == null) continue;
+            for (var p : info.getParticipants()) {
+                if (p.getPuuid() == null) continue;
+                ParticipationDoc row = ParticipationDoc.builder()
+                        .matchId(match.getMatchId())
+                        .puuid(p.getPuuid())
+                        .riotName(p.getRiotIdGameName() != null && p.getRiotIdTagline() != null
+                                ? p.getRiotIdGameName() + "#" + p.getRiotIdTagline() : null)
+                        .championId(p.getChampionId())
+                        .championName(p.getChampionName())
+                        .position(p.getIndividualPosition())
+                        .win(p.getWin())
+                        .kills(p.getKills())
+                        .deaths(p.getDeaths())
+                        .assists(p.getAssists())
+                        .goldEarned(p.getGoldEarned())
+                        .queueId(info.getQueueId())
+                        .platformId(info.getPlatformId())
+                        .gameStartTimestamp(info.getGameStartTimestamp())
+                        .build();
+                Query key = Query.query(Criteria.where("matchId").is(row.getMatchId()).and("puuid").is(row.getPuuid()));
+                ops.replaceOne(key, row, FindAndReplaceOptions.options().upsert());
+                count++;
+            }
+        }
+        if (count > 0) ops.execute();
+    }
+
+    @Override
+    public void onDeleted(Collection<MatchDataDoc> matches) {
+        List<String> matchIds = matches.stream().map(MatchDataDoc::getMatchId).filter(Objects::nonNull).toList();
+        if (matchIds.isEmpty()) return;
+        mongoTemplate.remove(Query.query(Criteria.where("matchId").in(matchIds)), ParticipationDoc.class);
+    }
+
+    @Override
+    public long rebuild() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.unwind("info.participants"),
+                ctx -> new Document("$project", new Document("_id", 0)
+                        .append("matchId", "$metadata.matchId")
+                        .append("puuid", "$info.participants.puuid")
+                        .append("riotName", new Document("$concat", List.of(
+                                "$info.participants.riotIdGameName", "#", "$info.participants.riotIdTagline")))
+                        .append("championId", "$info.participants.championId")
+                        .append("championName", "$info.participants.championName")
+                        .append("position", "$info.participants.individualPosition")
+                        .append("win", "$info.participants.win")
+                        .append("kills", "$info.participants.kills")
+                        .append("deaths", "$info.participants.deaths")
+                        .append("assists", "$info.participants.assists")
+                        .append("goldEarned", "$info.participants.goldEarned")
+                        .append("queueId", "$info.queueId")
+                        .append("platformId", "$info.platformId")
+                        .append("gameStartTimestamp", "$info.gameStartTimestamp")),
+                Aggregation.match(Criteria.where("puuid").type(2)),
+                Aggregation.out(collection())
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        mongoTemplate.aggregate(aggregation, "match_data", Document.class);
+        return mongoTemplate.count(new Query(), ParticipationDoc.class);
+    }
+}
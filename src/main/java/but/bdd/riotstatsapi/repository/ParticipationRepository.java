@@ -0,0 +1,223 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.ParticipationDoc;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ParticipationRepository extends MongoRepository<ParticipationDoc, String> {
+
+    @Aggregation(pipeline = {
+            """
+   {
+     $match: {
+       puuid: ?0,
+       championName: {
+         $type: "string",
+         $ne: ""
+       },
+       position: {
+         $type: "string",
+         $nin: ["", "NONE", "INVALID"]
+       },
+       riotName: {
+         $regex: ".+#.+"
+       }
+     }
+   }""",
+            """
+   {
+     $group: {
+       _id: {
+         puuid: "$puuid",
+         riotName: "$riotName",
+         role: "$position",
+         champion: "$championName"
+       },
+       games: {
+         $sum: 1
+       },
+       wins: {
+         $sum: {
+           $cond: ["$win", 1, 0]
+         }
+       }
+     }
+   }""",
+            """
+   {
+     $sort: {
+       "_id.role": 1,
+       games: -1,
+       wins: -1,
+       "_id.champion": 1
+     }
+   }""",
+            """
+   {
+     $group: {
+       _id: {
+         puuid: "$_id.puuid",
+         riotName: "$_id.riotName",
+         role: "$_id.role"
+       },
+       totalRoleGames: {
+         $sum: "$games"
+       },
+       totalRoleWins: {
+         $sum: "$wins"
+       },
+       favChampion: {
+         $first: "$_id.champion"
+       },
+       favChampionGames: {
+         $first: "$games"
+       },
+       favChampionWins: {
+         $first: "$wins"
+       },
+       favChampionWinrate: {
+         $first: {
+           $round: [
+             {
+               $multiply: [
+                 {
+                   $divide: ["$wins", "$games"]
+                 },
+                 100
+               ]
+             },
+             2
+           ]
+         }
+       }
+     }
+   }""",
+            """
+   {
+     $sort: {
+       totalRoleGames: -1
+     }
+   }""",
+            """
+   {
+     $group: {
+       _id: {
+         puuid: "$_id.puuid",
+         riotName: "$_id.riotName"
+       },
+       roles: {
+         $push: {
+           role: "$_id.role",
+           games: "$totalRoleGames",
+           wins: "$totalRoleWins",
+           winrate: {
+             $round: [
+               {
+                 $multiply: [
+                   {
+                     $divide: [
+                       "$totalRoleWins",
+                       "$totalRoleGames"
+                     ]
+                   },
+                   100
+                 ]
+               },
+               2
+             ]
+           },
+           favoriteChampion: {
+             name: "$favChampion",
+             games: "$favChampionGames",
+             wins: "$favChampionWins",
+             winrate: "$favChampionWinrate"
+           }
+         }
+       },
+       totalGames: {
+         $sum: "$totalRoleGames"
+       },
+       totalWins: {
+         $sum: "$totalRoleWins"
+       }
+     }
+   }""",
+            """
+   {
+     $addFields: {
+       winrate: {
+         $round: [
+           {
+             $multiply: [
+               {
+                 $divide: [
+                   "$totalWins",
+                   "$totalGames"
+                 ]
+               },
+               100
+             ]
+           },
+           2
+         ]
+       }
+     }
+   }""",
+            """
+   {
+     $project: {
+       _id: 0,
+       puuid: "$_id.puuid",
+       riotName: "$_id.riotName",
+       totalGames: 1,
+       totalWins: 1,
+       winrate: 1,
+       roles: 1
+     }
+   }
+"""
+    })
+    PlayerRolesView getPlayerWithRolesStatistics(String puuid);
+
+    @Aggregation(pipeline = {
+            """
+            { $match: {
+                championName: ?0,
+                position: { $type: "string", $nin: ["", "NONE", "INVALID"] }
+            } }
+            """,
+            """
+            { $group: {
+                _id: "$position",
+                games: { $sum: 1 },
+                wins: { $sum: { $cond: ["$win", 1, 0] } }
+            } }
+            """,
+            """
+            { $sort: { games: -1 } }
+            """,
+            """
+            { $group: {
+                _id: null,
+                roles: {
+                    $push: {
+                        role: "$_id",
+                        games: "$games",
+                        wins: "$wins",
+                        winrate: { $round: [ { $multiply: [ { $divide: ["$wins", "$games"] }, 100 ] }, 2 ] }
+                    }
+                },
+                picks: { $sum: "$games" }
+            } }
+            """,
+            """
+            { $project: {
+                _id: 0,
+                champion: { $literal: ?0 },
+                roles: 1,
+                picks: 1
+            } }
+            """
+    })
+    ChampionStatisticsView getChampionStatistics(String champion);
+}
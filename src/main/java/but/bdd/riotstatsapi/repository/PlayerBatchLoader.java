@@ -0,0 +1,59 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.PlayerDoc;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.*;
+
+/**
+ * Chargeur de joueurs à portée requête : les puuids sont dédupliqués et tous ceux qui ne sont pas
+ * encore résolus pendant la requête partent dans un seul $in.
+ */
+@Component
+@RequestScope
+public class PlayerBatchLoader {
+
+    private final PlayerRepository playerRepository;
+    private final Map<String, PlayerDoc> loaded = new HashMap<>();
+    private final Set<String> missing = new HashSet<>();
+    private final Set<String> pending = new LinkedHashSet<>();
+
+    public PlayerBatchLoader(PlayerRepository playerRepository) {
+        this.playerRepository = playerRepository;
+    }
+
+    /**
+     * Enregistre des puuids à charger au prochain appel de {@link #loadAll}, sans requête immédiate.
+     */
+    public void prime(Collection<String> puuids) {
+        for (String puuid : puuids) {
+            if (puuid != null && !loaded.containsKey(puuid) && !missing.contains(puuid)) {
+                pending.add(puuid);
+            }
+        }
+    }
+
+    public List<PlayerDoc> loadAll(Collection<String> puuids) {
+        prime(puuids);
+        if (!pending.isEmpty()) {
+            for (PlayerDoc player : playerRepository.findAllByPuuidIn(pending)) {
+                loaded.put(player.getPuuid(), player);
+            }
+            for (String puuid : pending) {
+                if (!loaded.containsKey(puuid)) missing.add(puuid);
+            }
+            pending.clear();
+        }
+        List<PlayerDoc> res = new ArrayList<>(puuids.size());
+        for (String puuid : puuids) {
+            PlayerDoc player = puuid != null ? loaded.get(puuid) : null;
+            if (player != null) res.add(player);
+        }
+        return res;
+    }
+
+    public Optional<PlayerDoc> load(String puuid) {
+        return loadAll(List.of(puuid)).stream().findFirst();
+    }
+}
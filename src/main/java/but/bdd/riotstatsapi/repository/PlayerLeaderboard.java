@@ -0,0 +1,130 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.PlayerDoc;
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Leaderboards précalculés en mémoire : pour chaque champ de tri et chaque combinaison (tier, rank),
+ * éventuellement vide, les riot.leaderboard.top-k meilleurs joueurs, triés par valeur décroissante puis puuid.
+ * Rafraîchi en arrière-plan par un seul parcours de la collection players ; l'instantané est remplacé d'un bloc,
+ * et la version {@link DataVersions#LEADERBOARD} n'avance que si son contenu a changé.
+ */
+@Component
+public class PlayerLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerLeaderboard.class);
+
+    private final PlayerRepository playerRepository;
+    private final int topK;
+    private final DataVersions versions;
+    private volatile Map<Key, List<Entry>> snapshot;
+
+    public PlayerLeaderboard(PlayerRepository playerRepository,
+                             @Value("${riot.leaderboard.top-k:5000}") int topK,
+                             DataVersions versions) {
+        this.playerRepository = playerRepository;
+        this.topK = topK;
+        this.versions = versions;
+    }
+
+    private record Key(LeaderboardField field, Tier tier, Rank rank) {}
+
+    private record Entry(double value, PlayerDoc player) {}
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::value).reversed()
+            .thenComparing(e -> e.player().getPuuid());
+
+    /**
+     * Page du leaderboard après la clé (afterValue, afterPuuid) exclue, ou depuis le début si afterPuuid est null.
+     */
+    public List<PlayerDoc> page(LeaderboardField field, Tier tier, Rank rank,
+                                double afterValue, String afterPuuid, int limit) {
+        List<Entry> entries = current().getOrDefault(new Key(field, tier, rank), List.of());
+        int from = 0;
+        if (afterPuuid != null) {
+            int pos = Collections.binarySearch(entries, new Entry(afterValue, PlayerDoc.builder().puuid(afterPuuid).build()), ORDER);
+            from = pos >= 0 ? pos + 1 : -pos - 1;
+        }
+        return entries.subList(from, Math.min(from + limit, entries.size())).stream().map(Entry::player).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${riot.leaderboard.refresh-interval:PT1M}",
+               initialDelayString = "${riot.leaderboard.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            Map<Key, List<Entry>> next = build();
+            if (!next.equals(snapshot)) {
+                snapshot = next;
+                versions.bump(DataVersions.LEADERBOARD);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rafraîchissement du leaderboard impossible, instantané précédent conservé", e);
+        }
+    }
+
+    private Map<Key, List<Entry>> current() {
+        Map<Key, List<Entry>> s = snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = build();
+                    versions.bump(DataVersions.LEADERBOARD);
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private Map<Key, List<Entry>> build() {
+        long start = System.nanoTime();
+        Map<Key, PriorityQueue<Entry>> heaps = new HashMap<>();
+        int players = 0;
+        try (Stream<PlayerDoc> all = playerRepository.streamAllBy()) {
+            for (PlayerDoc player : (Iterable<PlayerDoc>) all::iterator) {
+                if (player.getPuuid() == null) continue;
+                players++;
+                for (LeaderboardField field : LeaderboardField.values()) {
+                    Entry entry = new Entry(field.valueOf(player), player);
+                    offer(heaps, new Key(field, null, null), entry);
+                    if (player.getTier() != null) offer(heaps, new Key(field, player.getTier(), null), entry);
+                    if (player.getRank() != null) offer(heaps, new Key(field, null, player.getRank()), entry);
+                    if (player.getTier() != null && player.getRank() != null) {
+                        offer(heaps, new Key(field, player.getTier(), player.getRank()), entry);
+                    }
+                }
+            }
+        }
+        Map<Key, List<Entry>> built = new HashMap<>(heaps.size() * 2);
+        heaps.forEach((key, heap) -> {
+            List<Entry> sorted = new ArrayList<>(heap);
+            sorted.sort(ORDER);
+            built.put(key, List.copyOf(sorted));
+        });
+        log.debug("Leaderboard reconstruit: {} joueurs, {} classements en {} ms",
+                players, built.size(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    /**
+     * Tas borné dont la tête est la pire entrée retenue.
+     */
+    private void offer(Map<Key, PriorityQueue<Entry>> heaps, Key key, Entry entry) {
+        PriorityQueue<Entry> heap = heaps.computeIfAbsent(key, k -> new PriorityQueue<>(ORDER.reversed()));
+        if (heap.size() < topK) {
+            heap.add(entry);
+        } else if (ORDER.compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import but.bdd.riotstatsapi.domain.PlayerProfileDoc;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Maintient player_profiles (un document par puuid) par $inc des sommes de chaque participation, au total,
+ * par rôle et par champion. Une entrée de rôle ou de champion retombée à zéro partie reste jusqu'au prochain rebuild.
+ */
+@Component
+public class PlayerProfileProjection implements MatchProjection {
+
+    static final String UNKNOWN_ROLE = "UNKNOWN";
+    private static final String[] SUMS = {
+            "games", "wins", "kills", "deaths", "assists", "goldEarned", "minionsKilled", "damageToChampions", "durationSeconds"
+    };
+
+    private final MongoTemplate mongoTemplate;
+
+    public PlayerProfileProjection(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public String collection() {
+        return "player_profiles";
+    }
+
+    @Override
+    public void onSaved(Collection<MatchDataDoc> matches) {
+        apply(matches, 1);
+    }
+
+    @Override
+    public void onDeleted(Collection<MatchDataDoc> matches) {
+        Set<String> puuids = apply(matches, -1);
+        if (!puuids.isEmpty()) {
+            // limité aux joueurs touchés : _id indexé, pas de parcours de player_profiles
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(puuids).and("totals.games").lte(0)), PlayerProfileDoc.class);
+        }
+    }
+
+    /**
+     * Lecture par _id : un seul document, quel que soit l'historique du joueur.
+     */
+    public Optional<PlayerProfileView> profile(String puuid) {
+        return Optional.ofNullable(mongoTemplate.findById(puuid, PlayerProfileDoc.class)).map(PlayerProfileView::of);
+    }
+
+    /**
+     * Deux passes sur match_data : totaux et champions ($out, remplacement atomique), puis rôles ($merge).
+     */
+    @Override
+    public long rebuild() {
+        List<AggregationOperation> champions = new ArrayList<>(participants());
+        champions.add(group(new Document("puuid", "$puuid").append("championId", "$championId"),
+                new Document("championName", new Document("$first", "$championName"))));
+        champions.add(ctx -> new Document("$group", sums(new Document("_id", "$_id.puuid"), true)
+                .append("champions", new Document("$push", new Document("k", new Document("$toString", "$_id.championId"))
+                        .append("v", sums(new Document("championName", "$championName"), false))))));
+        champions.add(ctx -> new Document("$project", new Document("totals", sums(new Document(), false))
+                .append("champions", new Document("$arrayToObject", new Document("$filter", new Document("input", "$champions")
+                        .append("cond", new Document("$ne", Arrays.asList("$$this.k", null))))))));
+        champions.add(Aggregation.out(collection()));
+        mongoTemplate.aggregate(Aggregation.newAggregation(champions)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build()), "match_data", Document.class);
+
+        List<AggregationOperation> roles = new ArrayList<>(participants());
+        roles.add(group(new Document("puuid", "$puuid").append("role", "$role"), new Document()));
+        roles.add(ctx -> new Document("$group", new Document("_id", "$_id.puuid")
+                .append("roles", new Document("$push", new Document("k", "$_id.role").append("v", sums(new Document(), false))))));
+        roles.add(ctx -> new Document("$project", new Document("roles", new Document("$arrayToObject", "$roles"))));
+        roles.add(ctx -> new Document("$merge", new Document("into", collection())
+                .append("whenMatched", "merge")
+                .append("whenNotMatched", "discard")));
+        mongoTemplate.aggregate(Aggregation.newAggregation(roles)
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build()), "match_data", Document.class);
+
+        return mongoTemplate.count(new Query(), PlayerProfileDoc.class);
+    }
+
+    /**
+     * Une ligne par participation identifiée, avec les compteurs déjà convertis (win en 0/1, champs absents à 0).
+     */
+    private static List<AggregationOperation> participants() {
+        Document project = new Document("_id", 0)
+                .append("puuid", "$info.participants.puuid")
+                .append("championId", "$info.participants.championId")
+                .append("championName", "$info.participants.championName")
+                .append("role", new Document("$cond", List.of(
+                        new Document("$gt", List.of(new Document("$ifNull", List.of("$info.participants.individualPosition", "")), "")),
+                        "$info.participants.individualPosition", UNKNOWN_ROLE)))
+                .append("games", new Document("$literal", 1))
+                .append("wins", new Document("$cond", List.of("$info.participants.win", 1, 0)))
+                .append("kills", ifNull("$info.participants.kills"))
+                .append("deaths", ifNull("$info.participants.deaths"))
+                .append("assists", ifNull("$info.participants.assists"))
+                .append("goldEarned", ifNull("$info.participants.goldEarned"))
+                .append("minionsKilled", ifNull("$info.participants.totalMinionsKilled"))
+                .append("damageToChampions", ifNull("$info.participants.totalDamageDealtToChampions"))
+                .append("durationSeconds", ifNull("$info.gameDuration"));
+        return List.of(
+                Aggregation.unwind("info.participants"),
+                Aggregation.match(Criteria.where("info.participants.puuid").type(2)),
+                ctx -> new Document("$project", project));
+    }
+
+    private static Document ifNull(String field) {
+        return new Document("$ifNull", List.of(field, 0));
+    }
+
+    private static AggregationOperation group(Document id, Document extra) {
+        Document group = sums(new Document("_id", id), true);
+        extra.forEach(group::append);
+        return ctx -> new Document("$group", group);
+    }
+
+    /**
+     * Un champ par compteur : accumulateur $sum des lignes de l'étape précédente, ou simple référence au champ.
+     */
+    private static Document sums(Document into, boolean accumulate) {
+        for (String field : SUMS) {
+            into.append(field, accumulate ? new Document("$sum", "$" + field) : "$" + field);
+        }
+        return into;
+    }
+
+    /**
+     * Applique les sommes signées de chaque participation ; renvoie les puuid touchés.
+     */
+    private Set<String> apply(Collection<MatchDataDoc> matches, int sign) {
+        Map<String, Delta> deltas = new LinkedHashMap<>();
+        for (MatchDataDoc match : matches) {
+            var info = match.getInfo();
+            if (info == null || info.getParticipants() == null) continue;
+            long duration = info.getGameDuration() == null ? 0 : info.getGameDuration();
+            for (var p : info.getParticipants()) {
+                if (p.getPuuid() == null) continue;
+                long[] values = {
+                        sign, Boolean.TRUE.equals(p.getWin()) ? sign : 0,
+                        sign * value(p.getKills()), sign * value(p.getDeaths()), sign * value(p.getAssists()),
+                        sign * value(p.getGoldEarned()), sign * value(p.getTotalMinionsKilled()),
+                        sign * value(p.getTotalDamageDealtToChampions()), sign * duration
+                };
+                Delta delta = deltas.computeIfAbsent(p.getPuuid(), k -> new Delta());
+                delta.add("totals", values);
+                delta.add("roles." + role(p.getIndividualPosition()), values);
+                if (p.getChampionId() != null) {
+                    String champion = "champions." + p.getChampionId();
+                    delta.add(champion, values);
+                    if (p.getChampionName() != null) delta.names.put(champion + ".championName", p.getChampionName());
+                }
+            }
+        }
+        if (deltas.isEmpty()) return deltas.keySet();
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerProfileDoc.class);
+        deltas.forEach((puuid, delta) -> {
+            Update update = new Update();
+            delta.sums.forEach((path, values) -> {
+                for (int i = 0; i < SUMS.length; i++) {
+                    if (values[i] != 0) update.inc(path + "." + SUMS[i], values[i]);
+                }
+            });
+            delta.names.forEach(update::set);
+            ops.upsert(Query.query(Criteria.where("_id").is(puuid)), update);
+        });
+        ops.execute();
+        return deltas.keySet();
+    }
+
+    static String role(String individualPosition) {
+        return individualPosition == null || individualPosition.isEmpty() ? UNKNOWN_ROLE : individualPosition;
+    }
+
+    private static long value(Integer v) {
+        return v == null ? 0 : v;
+    }
+
+    private static final class Delta {
+        final Map<String, long[]> sums = new LinkedHashMap<>();
+        final Map<String, String> names = new HashMap<>();
+
+        void add(String path, long[] values) {
+            long[] acc = sums.computeIfAbsent(path, k -> new long[SUMS.length]);
+            for (int i = 0; i < values.length; i++) acc[i] += values[i];
+        }
+    }
+}
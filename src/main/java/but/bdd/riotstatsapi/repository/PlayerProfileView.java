@@ -0,0 +1,55 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.PlayerProfileDoc;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Profil de performance calculé depuis les sommes de player_profiles ; les champions sont triés par parties jouées.
+ */
+public record PlayerProfileView(String puuid, Performance totals, Map<String, Performance> roles, List<Performance> champions) {
+
+    /**
+     * Moyennes par partie, KDA = (kills + assists) / max(1, deaths), et valeurs par minute de jeu.
+     */
+    public record Performance(Integer championId, String championName, long games, long wins, double winrate,
+                              double avgKills, double avgDeaths, double avgAssists, double kda,
+                              double csPerMin, double goldPerMin, double damagePerMin) {
+
+        static Performance of(Integer championId, PlayerProfileDoc.Sums s) {
+            double g = Math.max(1, s.getGames());
+            double minutes = s.getDurationSeconds() / 60.0;
+            return new Performance(championId, s.getChampionName(), s.getGames(), s.getWins(), 100.0 * s.getWins() / g,
+                    s.getKills() / g, s.getDeaths() / g, s.getAssists() / g,
+                    (double) (s.getKills() + s.getAssists()) / Math.max(1, s.getDeaths()),
+                    perMinute(s.getMinionsKilled(), minutes), perMinute(s.getGoldEarned(), minutes),
+                    perMinute(s.getDamageToChampions(), minutes));
+        }
+
+        private static double perMinute(long value, double minutes) {
+            return minutes <= 0 ? 0.0 : value / minutes;
+        }
+    }
+
+    /**
+     * Les entrées retombées à zéro partie après des suppressions sont ignorées.
+     */
+    static PlayerProfileView of(PlayerProfileDoc doc) {
+        Map<String, Performance> roles = new LinkedHashMap<>();
+        if (doc.getRoles() != null) {
+            doc.getRoles().entrySet().stream()
+                    .filter(e -> e.getValue().getGames() > 0)
+                    .sorted(Comparator.comparingLong((Map.Entry<String, PlayerProfileDoc.Sums> e) -> e.getValue().getGames()).reversed())
+                    .forEach(e -> roles.put(e.getKey(), Performance.of(null, e.getValue())));
+        }
+        List<Performance> champions = doc.getChampions() == null ? List.of() : doc.getChampions().entrySet().stream()
+                .filter(e -> e.getValue().getGames() > 0)
+                .map(e -> Performance.of(Integer.valueOf(e.getKey()), e.getValue()))
+                .sorted(Comparator.comparingLong(Performance::games).reversed())
+                .toList();
+        return new PlayerProfileView(doc.getPuuid(), Performance.of(null, doc.getTotals()), roles, champions);
+    }
+}
@@ -0,0 +1,16 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.PlayerDoc;
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+
+import java.util.List;
+
+public interface PlayerRepositoryCustom {
+    List<PlayerDoc> search(Tier tier, Rank rank, Integer minLp, Integer maxLp,
+                           Boolean veteran, Boolean inactive, Boolean freshBlood);
+    long countSearch(Tier tier, Rank rank, Integer minLp, Integer maxLp,
+                     Boolean veteran, Boolean inactive, Boolean freshBlood);
+    long estimatedCount();
+    BulkWriteReport upsertAll(List<PlayerDoc> players);
+}
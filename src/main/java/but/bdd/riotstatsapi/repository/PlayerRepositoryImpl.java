@@ -0,0 +1,70 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.PlayerDoc;
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PlayerRepositoryImpl implements PlayerRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    PlayerRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<PlayerDoc> search(Tier tier, Rank rank, Integer minLp, Integer maxLp,
+                                  Boolean veteran, Boolean inactive, Boolean freshBlood) {
+        return mongoTemplate.find(Query.query(filters(tier, rank, minLp, maxLp, veteran, inactive, freshBlood)), PlayerDoc.class);
+    }
+
+    @Override
+    public long countSearch(Tier tier, Rank rank, Integer minLp, Integer maxLp,
+                            Boolean veteran, Boolean inactive, Boolean freshBlood) {
+        return mongoTemplate.count(Query.query(filters(tier, rank, minLp, maxLp, veteran, inactive, freshBlood)), PlayerDoc.class);
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(PlayerDoc.class);
+    }
+
+    @Override
+    public BulkWriteReport upsertAll(List<PlayerDoc> players) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PlayerDoc.class);
+        List<String> keys = new ArrayList<>(players.size());
+        for (PlayerDoc player : players) {
+            keys.add(player.getPuuid());
+            ops.replaceOne(Query.query(Criteria.where("puuid").is(player.getPuuid())), player,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        return BulkWriteReport.execute(ops, keys);
+    }
+
+    /**
+     * Seuls les filtres renseignés deviennent des prédicats, pour que l'index tier_rank_lp soit utilisable.
+     */
+    private static Criteria filters(Tier tier, Rank rank, Integer minLp, Integer maxLp,
+                                    Boolean veteran, Boolean inactive, Boolean freshBlood) {
+        Criteria criteria = new Criteria();
+        if (tier != null) criteria.and("tier").is(tier);
+        if (rank != null) criteria.and("rank").is(rank);
+        if (minLp != null || maxLp != null) {
+            Criteria lp = criteria.and("leaguePoints");
+            if (minLp != null) lp.gte(minLp);
+            if (maxLp != null) lp.lte(maxLp);
+        }
+        if (veteran != null) criteria.and("veteran").is(veteran);
+        if (inactive != null) criteria.and("inactive").is(inactive);
+        if (freshBlood != null) criteria.and("freshBlood").is(freshBlood);
+        return criteria;
+    }
+}
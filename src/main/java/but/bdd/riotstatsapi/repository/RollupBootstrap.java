@@ -0,0 +1,86 @@
+package but.bdd.riotstatsapi.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reconstruit une projection vide alors que match_data ne l'est pas : premier déploiement sur une base existante,
+ * données chargées hors de l'API (dump, crawler, mongorestore). Appelé au démarrage et quand une lecture
+ * d'une projection ne trouve rien.
+ * Les écritures faites hors de l'API dans une base déjà projetée ne sont pas vues : elles demandent un
+ * POST /api/matches/stats/rebuild.
+ */
+@Component
+public class RollupBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(RollupBootstrap.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, MatchProjection> projections = new LinkedHashMap<>();
+    private final CacheManager cacheManager;
+    private final DataVersions versions;
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    public RollupBootstrap(MongoTemplate mongoTemplate, List<MatchProjection> projections,
+                           CacheManager cacheManager, DataVersions versions) {
+        this.mongoTemplate = mongoTemplate;
+        projections.forEach(projection -> this.projections.put(projection.collection(), projection));
+        this.cacheManager = cacheManager;
+        this.versions = versions;
+    }
+
+    /**
+     * Projections reconstruites parmi toutes celles qui étaient vides, avec leur nombre de documents.
+     */
+    public Map<String, Long> ensureAllBuilt() {
+        Map<String, Long> res = new LinkedHashMap<>();
+        for (String collection : projections.keySet()) {
+            if (ensureBuilt(collection)) res.put(collection, mongoTemplate.estimatedCount(collection));
+        }
+        return res;
+    }
+
+    /**
+     * true si la projection était vide et vient d'être reconstruite ; un seul rebuild à la fois par projection,
+     * les appels concurrents attendent puis constatent qu'elle est remplie.
+     */
+    public boolean ensureBuilt(String collection) {
+        MatchProjection projection = projections.get(collection);
+        if (projection == null || !isMissing(collection)) return false;
+
+        ReentrantLock lock = locks.computeIfAbsent(collection, c -> new ReentrantLock());
+        lock.lock();
+        try {
+            if (!isMissing(collection)) return false;
+            long start = System.nanoTime();
+            long documents = projection.rebuild();
+            log.info("Projection {} vide, reconstruite depuis match_data: {} documents en {} ms",
+                    collection, documents, (System.nanoTime() - start) / 1_000_000);
+            for (String name : List.of(MatchCaches.CHAMPION_STATISTICS, MatchCaches.DURATIONS)) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache != null) cache.clear();
+            }
+            versions.bump(collection);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Comptes estimés (métadonnées de la collection) : pas de parcours, y compris sur une collection absente.
+     */
+    private boolean isMissing(String collection) {
+        return mongoTemplate.estimatedCount(collection) == 0 && mongoTemplate.estimatedCount("match_data") > 0;
+    }
+}
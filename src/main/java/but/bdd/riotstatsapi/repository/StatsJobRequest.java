@@ -0,0 +1,6 @@
+package but.bdd.riotstatsapi.repository;
+
+/**
+ * Corps de POST /api/jobs ; filtres optionnels sur match_data.
+ */
+public record StatsJobRequest(String type, Integer queueId, String platformId, Long startTimeFrom, Long startTimeTo) {}
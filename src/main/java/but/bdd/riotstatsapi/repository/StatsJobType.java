@@ -0,0 +1,42 @@
+package but.bdd.riotstatsapi.repository;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Requêtes disponibles en job asynchrone (le nom est celui attendu dans le champ type) : winrate regroupé par champion
+ * ou par individualPosition, calculé sur match_data avec les filtres file, plateforme et période.
+ */
+public enum StatsJobType {
+    WINRATE_BY_CHAMPION("winrate-by-champion", "championId", "championId"),
+    WINRATE_BY_POSITION("winrate-by-position", "position", "individualPosition");
+
+    private final String param;
+    private final String field;
+    private final String participantField;
+
+    StatsJobType(String param, String field, String participantField) {
+        this.param = param;
+        this.field = field;
+        this.participantField = participantField;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    /**
+     * Nom de la clé de regroupement dans les lignes du résultat.
+     */
+    String field() {
+        return field;
+    }
+
+    String participantField() {
+        return participantField;
+    }
+
+    public static Optional<StatsJobType> fromParam(String param) {
+        return Arrays.stream(values()).filter(t -> t.param.equalsIgnoreCase(param)).findFirst();
+    }
+}
@@ -0,0 +1,227 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.StatsJobDoc;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Jobs de statistiques persistés dans stats_jobs et exécutés hors des threads de requête, sur un pool borné
+ * (riot.jobs.workers threads, file de riot.jobs.queue-capacity) ; chaque agrégation a allowDiskUse et un budget
+ * maxTimeMS (riot.jobs.max-time). Un job identique encore en attente ou en cours est réutilisé au lieu d'être recréé.
+ */
+@Component
+public class StatsJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(StatsJobs.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Duration maxTime;
+    private final Duration resultTtl;
+    private final Duration staleAfter;
+    private final MeterRegistry registry;
+    private final Timer duration;
+
+    public StatsJobs(MongoTemplate mongoTemplate, MeterRegistry registry,
+                     @Value("${riot.jobs.workers:2}") int workers,
+                     @Value("${riot.jobs.queue-capacity:32}") int queueCapacity,
+                     @Value("${riot.jobs.max-time:PT10M}") Duration maxTime,
+                     @Value("${riot.jobs.result-ttl:PT24H}") Duration resultTtl,
+                     @Value("${riot.jobs.stale-after:PT6H}") Duration staleAfter) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxTime = maxTime;
+        this.resultTtl = resultTtl;
+        this.staleAfter = staleAfter;
+        this.registry = registry;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("stats-job-", 0).factory());
+        Gauge.builder("riot.jobs.queued", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("riot.jobs.running", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        this.duration = Timer.builder("riot.jobs.duration").register(registry);
+    }
+
+    /**
+     * Job créé, ou job identique déjà en attente ou en cours (deduplicated).
+     */
+    public record Submission(StatsJobDoc job, boolean deduplicated) {}
+
+    /**
+     * @throws RejectedExecutionException si la file d'attente est pleine ; le job est alors marqué FAILED (pendingKey libérée)
+     */
+    public Submission submit(StatsJobType type, StatsJobRequest request) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("queueId", request.queueId());
+        params.put("platformId", request.platformId());
+        params.put("startTimeFrom", request.startTimeFrom());
+        params.put("startTimeTo", request.startTimeTo());
+        String key = type.param() + params;
+        params.values().removeIf(Objects::isNull);
+
+        Instant now = Instant.now();
+        StatsJobDoc job = StatsJobDoc.builder()
+                .id(UUID.randomUUID().toString())
+                .type(type.param())
+                .params(params)
+                .status(StatsJobDoc.Status.PENDING)
+                .pendingKey(key)
+                .createdAt(now)
+                .expireAt(now.plus(resultTtl))
+                .build();
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                mongoTemplate.insert(job);
+                break;
+            } catch (DuplicateKeyException e) {
+                StatsJobDoc existing = mongoTemplate.findOne(Query.query(Criteria.where("pendingKey").is(key)), StatsJobDoc.class);
+                if (existing != null && !isStale(existing, now)) {
+                    count("deduplicated");
+                    return new Submission(existing, true);
+                }
+                if (attempt >= 2) throw e;
+                // terminé entre-temps, ou abandonné par une instance arrêtée : la clé est libérée puis on réessaie
+                if (existing != null) finish(existing.getId(), StatsJobDoc.Status.FAILED, null, "Abandonné (instance arrêtée)");
+            }
+        }
+
+        try {
+            executor.execute(new Task(job.getId(), type, request));
+        } catch (RejectedExecutionException e) {
+            // gardé en FAILED plutôt que supprimé : une soumission identique a pu être dédoublonnée sur ce job entre-temps
+            finish(job.getId(), StatsJobDoc.Status.FAILED, null, "Job queue full");
+            count("rejected");
+            throw e;
+        }
+        count("created");
+        return new Submission(job, false);
+    }
+
+    public Optional<StatsJobDoc> find(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, StatsJobDoc.class));
+    }
+
+    /**
+     * Les jobs encore en file sont marqués FAILED ; ceux en cours sont interrompus (le driver abandonne la commande).
+     */
+    @PreDestroy
+    void shutdown() {
+        for (Runnable pending : executor.shutdownNow()) {
+            if (pending instanceof Task task) {
+                finish(task.id, StatsJobDoc.Status.FAILED, null, "Interrompu par l'arrêt du serveur");
+            }
+        }
+    }
+
+    /**
+     * Un job RUNNING ne peut dépasser maxTime côté serveur ; un job PENDING trop ancien n'a plus d'instance pour l'exécuter.
+     */
+    private boolean isStale(StatsJobDoc job, Instant now) {
+        if (job.getStatus() == StatsJobDoc.Status.RUNNING && job.getStartedAt() != null) {
+            return job.getStartedAt().plus(maxTime).plusSeconds(60).isBefore(now);
+        }
+        return job.getCreatedAt() != null && job.getCreatedAt().plus(staleAfter).isBefore(now);
+    }
+
+    private void run(String id, StatsJobType type, StatsJobRequest request) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                new Update().set("status", StatsJobDoc.Status.RUNNING).set("startedAt", Instant.now()), StatsJobDoc.class);
+        long start = System.nanoTime();
+        try {
+            List<Document> result = mongoTemplate.aggregate(aggregation(type, request), "match_data", Document.class)
+                    .getMappedResults();
+            finish(id, StatsJobDoc.Status.DONE, result, null);
+        } catch (RuntimeException e) {
+            log.warn("Job {} ({}) en échec: {}", id, type.param(), e.getMessage());
+            try {
+                finish(id, StatsJobDoc.Status.FAILED, null, e.getMessage());
+            } catch (RuntimeException unrecorded) {
+                log.error("Job {}: échec non enregistré", id, unrecorded);
+            }
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Aggregation aggregation(StatsJobType type, StatsJobRequest request) {
+        Document groupBy = new Document("_id", "$info.participants." + type.participantField())
+                .append("games", new Document("$sum", 1))
+                .append("wins", new Document("$sum", new Document("$cond", List.of("$info.participants.win", 1, 0))));
+        Document project = new Document("_id", 0).append(type.field(), "$_id");
+        if (type == StatsJobType.WINRATE_BY_CHAMPION) {
+            groupBy.append("championName", new Document("$first", "$info.participants.championName"));
+            project.append("championName", 1);
+        }
+        project.append("games", 1).append("wins", 1)
+                .append("winrate", new Document("$multiply", List.of(new Document("$divide", List.of("$wins", "$games")), 100)));
+
+        return Aggregation.newAggregation(
+                Aggregation.match(MatchDataFilters.of(request.queueId(), request.platformId(),
+                        request.startTimeFrom(), request.startTimeTo())),
+                Aggregation.unwind("info.participants"),
+                ctx -> new Document("$group", groupBy),
+                ctx -> new Document("$project", project),
+                ctx -> new Document("$sort", new Document("games", -1))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).maxTime(maxTime).build());
+    }
+
+    /**
+     * État final : pendingKey retirée (un nouveau job identique peut être créé) et expiration repoussée.
+     */
+    private void finish(String id, StatsJobDoc.Status status, List<Document> result, String error) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", status)
+                .set("finishedAt", now)
+                .set("expireAt", now.plus(resultTtl))
+                .unset("pendingKey");
+        if (result != null) update.set("result", result);
+        if (error != null) update.set("error", error);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, StatsJobDoc.class);
+        registry.counter("riot.jobs.completed", "status", status.name().toLowerCase()).increment();
+    }
+
+    private void count(String outcome) {
+        registry.counter("riot.jobs.submitted", "outcome", outcome).increment();
+    }
+
+    private final class Task implements Runnable {
+        private final String id;
+        private final StatsJobType type;
+        private final StatsJobRequest request;
+
+        Task(String id, StatsJobType type, StatsJobRequest request) {
+            this.id = id;
+            this.type = type;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            StatsJobs.this.run(id, type, request);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package but.bdd.riotstatsapi.web;
+
+import but.bdd.riotstatsapi.analytics.AnalyticsFilter;
+import but.bdd.riotstatsapi.analytics.ColumnarAnalytics;
+import but.bdd.riotstatsapi.repository.DataVersions;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Statistiques calculées par le moteur en colonnes (riot.analytics.enabled), avec des filtres combinables
+ * que les rollups Mongo ne couvrent pas ; 503 tant que le premier chargement n'est pas terminé.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@Tag(name = "analytics")
+@Bulkhead(Bulkhead.HEAVY)
+@ConditionalOnProperty(prefix = "riot.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private final ColumnarAnalytics analytics;
+
+    public AnalyticsController(ColumnarAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    @GetMapping("/champions")
+    @ConditionalGet(DataVersions.ANALYTICS)
+    public ResponseEntity<?> champions(@RequestParam(required = false) Integer queueId,
+                                       @RequestParam(required = false) String platformId,
+                                       @RequestParam(required = false) Long startTimeFrom,
+                                       @RequestParam(required = false) Long startTimeTo,
+                                       @RequestParam(required = false) String position,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        var filter = new AnalyticsFilter(queueId, platformId, startTimeFrom, startTimeTo, null, position);
+        return answer(filter, f -> analytics.champions(f, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    @GetMapping("/roles")
+    @ConditionalGet(DataVersions.ANALYTICS)
+    public ResponseEntity<?> roles(@RequestParam(required = false) Integer queueId,
+                                   @RequestParam(required = false) String platformId,
+                                   @RequestParam(required = false) Long startTimeFrom,
+                                   @RequestParam(required = false) Long startTimeTo,
+                                   @RequestParam(required = false) Integer championId) {
+        var filter = new AnalyticsFilter(queueId, platformId, startTimeFrom, startTimeTo, championId, null);
+        return answer(filter, analytics::roles);
+    }
+
+    @GetMapping("/durations")
+    @ConditionalGet(DataVersions.ANALYTICS)
+    public ResponseEntity<?> durations(@RequestParam(required = false) Integer queueId,
+                                       @RequestParam(required = false) String platformId,
+                                       @RequestParam(required = false) Long startTimeFrom,
+                                       @RequestParam(required = false) Long startTimeTo) {
+        var filter = new AnalyticsFilter(queueId, platformId, startTimeFrom, startTimeTo, null, null);
+        return answer(filter, analytics::durations);
+    }
+
+    private ResponseEntity<?> answer(AnalyticsFilter filter, Function<AnalyticsFilter, ?> query) {
+        if (!analytics.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Analytics engine is loading"));
+        }
+        return ResponseEntity.ok(query.apply(filter));
+    }
+}
@@ -0,0 +1,146 @@
+package but.bdd.riotstatsapi.web;
+
+import but.bdd.riotstatsapi.domain.MatchDataDoc;
+import but.bdd.riotstatsapi.domain.MatchIdDoc;
+import but.bdd.riotstatsapi.domain.PlayerDoc;
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+import but.bdd.riotstatsapi.repository.MatchFilter;
+import but.bdd.riotstatsapi.repository.MatchRepository;
+import but.bdd.riotstatsapi.repository.PlayerRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Écritures, suppressions et exports en masse : upserts NDJSON par lots, purge par identifiants ou filtres,
+ * export de match_data en flux.
+ * Projections et caches sont maintenus par le repository.
+ */
+@RestController
+@RequestMapping("/api")
+@Tag(name = "bulk")
+@Bulkhead(Bulkhead.EXPORT)
+public class BulkController {
+
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final MatchRepository repo;
+    private final PlayerRepository playerRepository;
+    private final BulkIngestor ingestor;
+    private final ObjectMapper objectMapper;
+    private final MatchExportWriter exportWriter;
+    private final int deleteBatchSize;
+    private final int exportBatchSize;
+
+    public BulkController(MatchRepository repo, PlayerRepository playerRepository, BulkIngestor ingestor,
+                          ObjectMapper objectMapper, MatchExportWriter exportWriter,
+                          @Value("${riot.ingestion.delete-batch-size:1000}") int deleteBatchSize,
+                          @Value("${riot.export.batch-size:1000}") int exportBatchSize) {
+        this.repo = repo;
+        this.playerRepository = playerRepository;
+        this.ingestor = ingestor;
+        this.objectMapper = objectMapper;
+        this.exportWriter = exportWriter;
+        this.deleteBatchSize = deleteBatchSize;
+        this.exportBatchSize = exportBatchSize;
+    }
+
+    @PostMapping(value = "/matches/bulk", consumes = StreamingResponses.NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestMatchData(InputStream body) throws IOException {
+        return ResponseEntity.ok(ingestor.ingest(body, MatchDataDoc.class, BulkController::matchKey, repo::saveMatchDataBatch));
+    }
+
+    @PostMapping(value = "/matches/ids/bulk", consumes = StreamingResponses.NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestMatchIds(InputStream body) throws IOException {
+        return ResponseEntity.ok(ingestor.ingest(body, MatchIdDoc.class, MatchIdDoc::getMatchId, repo::saveMatchIdBatch));
+    }
+
+    @PostMapping(value = "/players/bulk", consumes = StreamingResponses.NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestPlayers(InputStream body) throws IOException {
+        return ResponseEntity.ok(ingestor.ingest(body, PlayerDoc.class, PlayerDoc::getPuuid, playerRepository::upsertAll));
+    }
+
+    public record BulkDeleteRequest(List<String> matchIds, Integer queueId, String platformId,
+                                    Long startTimeFrom, Long startTimeTo, Tier tier, Rank rank,
+                                    Boolean transactional, Integer batchSize) {}
+
+    /**
+     * Suppression en masse par identifiants et/ou filtres ; l'avancement est renvoyé en NDJSON, une ligne par lot.
+     * Pas de délai serveur (riot.async.timeout) : seule une déconnexion du client arrête la suppression entre deux lots.
+     */
+    @PostMapping(value = "/matches/bulk/delete", produces = StreamingResponses.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> deleteMatches(@RequestBody BulkDeleteRequest request) {
+        var filter = new MatchFilter(request.matchIds(), request.queueId(), request.platformId(),
+                request.startTimeFrom(), request.startTimeTo(), request.tier(), request.rank());
+        if (filter.isEmpty()) {
+            return StreamingResponses.badRequest(objectMapper, "At least one of matchIds, queueId, platformId, startTimeFrom, startTimeTo, tier, rank is required");
+        }
+        int batchSize = Math.max(1, Math.min(request.batchSize() == null ? deleteBatchSize : request.batchSize(), 10_000));
+        boolean transactional = Boolean.TRUE.equals(request.transactional());
+        return ResponseEntity.ok()
+                .contentType(StreamingResponses.NDJSON)
+                .body(StreamingResponses.ndjson(objectMapper, () -> repo.deleteMatches(filter, batchSize, transactional)));
+    }
+
+    /**
+     * Export de match_data trié par matchId, en NDJSON (documents bruts) ou CSV (une ligne par participant),
+     * compressé en gzip si Accept-Encoding le permet. Reprise après coupure : after = dernier matchId reçu en entier.
+     */
+    @GetMapping("/matches/export")
+    public ResponseEntity<StreamingResponseBody> exportMatches(
+            @RequestParam(required = false) Integer queueId,
+            @RequestParam(required = false) String platformId,
+            @RequestParam(required = false) Long startTimeFrom,
+            @RequestParam(required = false) Long startTimeTo,
+            @RequestParam(required = false) Tier tier,
+            @RequestParam(required = false) Rank rank,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            return StreamingResponses.badRequest(objectMapper, "Unknown format: " + format);
+        }
+        var filter = new MatchFilter(null, queueId, platformId, startTimeFrom, startTimeTo, tier, rank);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        var response = ResponseEntity.ok()
+                .contentType(csv ? CSV : StreamingResponses.NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"match_data." + (csv ? "csv" : "ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(exportWriter.body(() -> repo.exportMatches(filter, after, exportBatchSize), csv, gzip));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+            return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    /**
+     * Les documents de l'API Riot ne portent l'identifiant que dans metadata.matchId.
+     */
+    private static String matchKey(MatchDataDoc match) {
+        if (match.getMatchId() == null && match.getMetadata() != null) {
+            match.setMatchId(match.getMetadata().getMatchId());
+        }
+        return match.getMatchId();
+    }
+}
@@ -0,0 +1,153 @@
+package but.bdd.riotstatsapi.web;
+
+import but.bdd.riotstatsapi.repository.BulkWriteReport;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Ingestion NDJSON : lecture ligne à ligne, lots de riot.ingestion.batch-size documents (dédoublonnés par clé,
+ * la dernière ligne l'emporte), au plus riot.ingestion.max-in-flight lots écrits en parallèle.
+ * Un lot qui contient une clé encore en cours d'écriture dans un autre lot attend la fin de celui-ci.
+ */
+@Component
+class BulkIngestor {
+
+    private static final int MAX_LINE_ERRORS = 100;
+
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ingest-", 0).factory());
+
+    BulkIngestor(ObjectMapper objectMapper,
+                 @Value("${riot.ingestion.batch-size:500}") int batchSize,
+                 @Value("${riot.ingestion.max-in-flight:4}") int maxInFlight) {
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * rebuildRequired (lot écrit, projections en échec) : les documents sont dans match_data, ne pas renvoyer le lot
+     * mais reconstruire les projections.
+     */
+    record BatchReport(int batch, int size, int upserted, int matched, int modified,
+                       List<BulkWriteReport.Failure> failures, String error, Boolean rebuildRequired, long tookMs) {}
+
+    record LineError(long line, String error) {}
+
+    <T> Map<String, Object> ingest(InputStream body, Class<T> type, Function<T, String> key,
+                                   Function<List<T>, BulkWriteReport> writer) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(type);
+        Semaphore permits = new Semaphore(maxInFlight);
+        List<InFlight> batches = new ArrayList<>();
+        List<LineError> lineErrors = new ArrayList<>();
+        long received = 0, rejected = 0;
+
+        Map<String, T> batch = new LinkedHashMap<>();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String text;
+        long lineNo = 0;
+        while ((text = lines.readLine()) != null) {
+            lineNo++;
+            if (text.isBlank()) continue;
+            received++;
+            String error;
+            try {
+                T doc = reader.readValue(text);
+                String k = key.apply(doc);
+                if (k != null && !k.isBlank()) {
+                    batch.remove(k);
+                    batch.put(k, doc);
+                    if (batch.size() >= batchSize) {
+                        submit(batch, batches, permits, writer);
+                        batch = new LinkedHashMap<>();
+                    }
+                    continue;
+                }
+                error = "Missing key";
+            } catch (JsonProcessingException e) {
+                error = e.getOriginalMessage();
+            }
+            rejected++;
+            if (lineErrors.size() < MAX_LINE_ERRORS) lineErrors.add(new LineError(lineNo, error));
+        }
+        if (!batch.isEmpty()) submit(batch, batches, permits, writer);
+
+        List<BatchReport> reports = new ArrayList<>(batches.size());
+        for (InFlight inFlight : batches) reports.add(await(inFlight.report()));
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("received", received);
+        res.put("rejected", rejected);
+        res.put("upserted", reports.stream().mapToLong(BatchReport::upserted).sum());
+        res.put("matched", reports.stream().mapToLong(BatchReport::matched).sum());
+        res.put("modified", reports.stream().mapToLong(BatchReport::modified).sum());
+        res.put("failed", reports.stream()
+                .mapToLong(r -> r.error() != null && r.rebuildRequired() == null ? r.size() : r.failures().size()).sum());
+        if (reports.stream().anyMatch(r -> r.rebuildRequired() != null)) res.put("rebuildRequired", true);
+        res.put("batches", reports);
+        if (!lineErrors.isEmpty()) res.put("lineErrors", lineErrors);
+        return res;
+    }
+
+    private record InFlight(Set<String> keys, Future<BatchReport> report) {}
+
+    private <T> void submit(Map<String, T> batch, List<InFlight> batches, Semaphore permits,
+                            Function<List<T>, BulkWriteReport> writer) {
+        Set<String> keys = Set.copyOf(batch.keySet());
+        for (InFlight previous : batches) {
+            if (!previous.report().isDone() && previous.keys().stream().anyMatch(keys::contains)) {
+                await(previous.report());
+            }
+        }
+        List<T> docs = List.copyOf(batch.values());
+        int index = batches.size();
+        permits.acquireUninterruptibly();
+        Future<BatchReport> report = executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                BulkWriteReport r = writer.apply(docs);
+                return new BatchReport(index, r.size(), r.upserted(), r.matched(), r.modified(),
+                        r.failures(), r.projectionError(), r.projectionError() != null ? Boolean.TRUE : null,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (RuntimeException e) {
+                return new BatchReport(index, docs.size(), 0, 0, 0, List.of(), e.getMessage(), null,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } finally {
+                permits.release();
+            }
+        });
+        batches.add(new InFlight(keys, report));
+    }
+
+    private static BatchReport await(Future<BatchReport> report) {
+        try {
+            return report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
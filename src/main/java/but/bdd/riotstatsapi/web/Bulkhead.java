@@ -0,0 +1,22 @@
+package but.bdd.riotstatsapi.web;
+
+import java.lang.annotation.*;
+
+/**
+ * Classe de cloisonnement d'un handler (méthode ou contrôleur entier) : {@link BulkheadInterceptor} borne les requêtes
+ * simultanées et la file d'attente de chaque classe (riot.bulkhead.classes.*). Sans annotation, un handler est CHEAP.
+ */
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /** Lectures indexées et réponses servies depuis la mémoire. */
+    String CHEAP = "cheap";
+    /** Agrégations et parcours de collections. */
+    String HEAVY = "heavy";
+    /** Transferts en masse (export, ingestion, suppression par lots). */
+    String EXPORT = "export";
+
+    String value();
+}
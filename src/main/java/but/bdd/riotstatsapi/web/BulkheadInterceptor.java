@@ -0,0 +1,145 @@
+package but.bdd.riotstatsapi.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission par classe d'endpoint ({@link Bulkhead}) : au plus max-concurrent requêtes en cours, max-queue en attente
+ * d'un permis pendant max-wait au plus ; au-delà, rejet immédiat (status et Retry-After de la classe).
+ * Pour une réponse asynchrone (StreamingResponseBody), le permis est gardé jusqu'à la fin de l'écriture :
+ * il n'est rendu qu'au afterCompletion du redispatch.
+ */
+@Component
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final Map<String, Compartment> compartments = new LinkedHashMap<>();
+    private final Map<Method, Compartment> byHandler = new ConcurrentHashMap<>();
+    private final ObjectMapper mapper;
+
+    public BulkheadInterceptor(Settings settings, MeterRegistry registry, ObjectMapper mapper) {
+        this.mapper = mapper;
+        settings.getClasses().forEach((name, limit) -> compartments.put(name, new Compartment(name, limit, registry)));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException, InterruptedException {
+        if (!(handler instanceof HandlerMethod method)) return true;
+        if (request.getAttribute(PERMIT) != null) return true;
+
+        Compartment compartment = byHandler.computeIfAbsent(method.getMethod(), m -> compartment(method));
+        String rejection = compartment.acquire();
+        if (rejection == null) {
+            request.setAttribute(PERMIT, compartment);
+            return true;
+        }
+        response.setStatus(compartment.limit.getStatus());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, compartment.limit.getRetryAfter().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), Map.of("error", rejection));
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof Compartment compartment) {
+            request.removeAttribute(PERMIT);
+            compartment.permits.release();
+        }
+    }
+
+    private Compartment compartment(HandlerMethod method) {
+        Bulkhead bulkhead = method.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) bulkhead = method.getBeanType().getAnnotation(Bulkhead.class);
+        String name = bulkhead == null ? Bulkhead.CHEAP : bulkhead.value();
+        Compartment compartment = compartments.get(name);
+        if (compartment == null) {
+            throw new IllegalStateException("Classe de bulkhead non configurée (riot.bulkhead.classes): " + name);
+        }
+        return compartment;
+    }
+
+    private static final class Compartment {
+        final Limit limit;
+        final Semaphore permits;
+        final AtomicInteger queued = new AtomicInteger();
+        final Counter queueFull;
+        final Counter timedOut;
+        final Timer wait;
+
+        Compartment(String name, Limit limit, MeterRegistry registry) {
+            this.limit = limit;
+            this.permits = new Semaphore(limit.getMaxConcurrent(), true);
+            Gauge.builder("riot.bulkhead.active", permits, p -> limit.getMaxConcurrent() - p.availablePermits())
+                    .tag("class", name).register(registry);
+            Gauge.builder("riot.bulkhead.queued", queued, AtomicInteger::get).tag("class", name).register(registry);
+            this.queueFull = Counter.builder("riot.bulkhead.rejected").tag("class", name).tag("reason", "queue_full").register(registry);
+            this.timedOut = Counter.builder("riot.bulkhead.rejected").tag("class", name).tag("reason", "timeout").register(registry);
+            this.wait = Timer.builder("riot.bulkhead.wait").tag("class", name).register(registry);
+        }
+
+        /**
+         * null si un permis est obtenu, sinon le motif du rejet.
+         */
+        String acquire() throws InterruptedException {
+            if (permits.tryAcquire()) return null;
+            if (queued.incrementAndGet() > limit.getMaxQueue()) {
+                queued.decrementAndGet();
+                queueFull.increment();
+                return "Server busy, retry later";
+            }
+            long start = System.nanoTime();
+            try {
+                if (permits.tryAcquire(limit.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) return null;
+            } finally {
+                queued.decrementAndGet();
+                wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            timedOut.increment();
+            return "Server busy, retry later";
+        }
+    }
+
+    @Data
+    @ConfigurationProperties("riot.bulkhead")
+    public static class Settings {
+        private boolean enabled = true;
+        private Map<String, Limit> classes = new LinkedHashMap<>();
+    }
+
+    /**
+     * status : 503 quand la capacité du serveur est en cause, 429 pour une limite d'usage (exports).
+     */
+    @Data
+    public static class Limit {
+        private int maxConcurrent = 16;
+        private int maxQueue = 0;
+        private Duration maxWait = Duration.ZERO;
+        private int status = 503;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
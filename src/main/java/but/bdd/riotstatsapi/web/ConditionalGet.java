@@ -0,0 +1,14 @@
+package but.bdd.riotstatsapi.web;
+
+import java.lang.annotation.*;
+
+/**
+ * GET dont la réponse ne dépend que des collections indiquées et des paramètres de la requête :
+ * {@link ConditionalGetInterceptor} pose ETag/Last-Modified et répond 304 sans appeler le handler.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalGet {
+    String[] value();
+}
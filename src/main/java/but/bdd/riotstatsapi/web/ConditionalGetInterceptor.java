@@ -0,0 +1,56 @@
+package but.bdd.riotstatsapi.web;
+
+import but.bdd.riotstatsapi.repository.DataVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * ETag fort calculé avant le handler à partir des versions de {@link DataVersions}, de l'URI, des paramètres
+ * et de l'en-tête Accept (une même ressource peut être servie dans plusieurs formats).
+ * Les versions ne voient que les écritures de cette instance : l'ETag et Last-Modified incluent aussi une fenêtre
+ * de riot.conditional-get.max-age, pour qu'une écriture externe (chargement, autre réplique, mongorestore)
+ * soit servie au plus tard à la fenêtre suivante, comme pour les caches Caffeine.
+ */
+@Component
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final DataVersions versions;
+    private final long windowMillis;
+
+    public ConditionalGetInterceptor(DataVersions versions,
+                                     @Value("${riot.conditional-get.max-age:60s}") Duration maxAge) {
+        this.versions = versions;
+        this.windowMillis = Math.max(1, maxAge.toMillis());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !"GET".equals(request.getMethod())) return true;
+        ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditional == null) return true;
+
+        long now = System.currentTimeMillis();
+        long windowStart = now - Math.floorMod(now, windowMillis);
+        String key = versions.tag(conditional.value())
+                + '@' + windowStart
+                + '|' + request.getRequestURI()
+                + '?' + request.getQueryString()
+                + '|' + request.getHeader(HttpHeaders.ACCEPT);
+        String etag = '"' + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + '"';
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        long lastModified = Math.max(versions.lastModified(conditional.value()), windowStart);
+        return !new ServletWebRequest(request, response).checkNotModified(etag, lastModified);
+    }
+}
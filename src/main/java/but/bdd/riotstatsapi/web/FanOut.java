@@ -0,0 +1,92 @@
+package but.bdd.riotstatsapi.web;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Exécute en parallèle les requêtes indépendantes d'un endpoint composite : un thread virtuel par tâche si
+ * spring.threads.virtual.enabled, sinon un pool borné de threads plateforme (riot.fanout.max-threads).
+ * Un scope attend toutes ses tâches ; au premier échec (ou au timeout) les autres sont annulées.
+ */
+@Component
+class FanOut {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    FanOut(@Value("${riot.fanout.timeout:10s}") Duration timeout,
+           @Value("${riot.fanout.max-threads:32}") int maxThreads,
+           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.timeout = timeout;
+        this.executor = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fanout-", 0).factory())
+                : Executors.newFixedThreadPool(maxThreads, Thread.ofPlatform().name("fanout-", 0).daemon().factory());
+    }
+
+    Scope scope() {
+        return new Scope();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    final class Scope implements AutoCloseable {
+
+        private final BlockingQueue<Future<?>> completed = new LinkedBlockingQueue<>();
+        private final List<Future<?>> tasks = new ArrayList<>();
+
+        /**
+         * La tâche se signale dans {@code completed} en se terminant (succès, échec ou annulation), comme
+         * ExecutorCompletionService, sans perdre son type.
+         */
+        <T> Supplier<T> fork(Callable<T> task) {
+            FutureTask<T> future = new FutureTask<>(task) {
+                @Override
+                protected void done() {
+                    completed.add(this);
+                }
+            };
+            tasks.add(future);
+            executor.execute(future);
+            return future::resultNow;
+        }
+
+        void join() {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try {
+                for (int i = 0; i < tasks.size(); i++) {
+                    Future<?> done = completed.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (done == null) {
+                        throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Fan-out timed out after " + timeout);
+                    }
+                    done.get();
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                if (e.getCause() instanceof Error err) throw err;
+                throw new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package but.bdd.riotstatsapi.web;
+
+import but.bdd.riotstatsapi.domain.StatsJobDoc;
+import but.bdd.riotstatsapi.repository.StatsJobRequest;
+import but.bdd.riotstatsapi.repository.StatsJobType;
+import but.bdd.riotstatsapi.repository.StatsJobs;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Statistiques longues en asynchrone : POST renvoie 202 et l'URL du job, à interroger jusqu'à DONE ou FAILED,
+ * puis le résultat est lu sur /result tant que le job n'a pas expiré (riot.jobs.result-ttl).
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@Tag(name = "jobs")
+public class JobController {
+
+    private final StatsJobs jobs;
+
+    public JobController(StatsJobs jobs) {
+        this.jobs = jobs;
+    }
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> submit(@RequestBody StatsJobRequest request) {
+        var type = StatsJobType.fromParam(request.type());
+        if (type.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown type: " + request.type() + " ("
+                    + String.join(", ", Arrays.stream(StatsJobType.values()).map(StatsJobType::param).toList()) + ")"));
+        }
+        try {
+            var submission = jobs.submit(type.get(), request);
+            Map<String, Object> res = status(submission.job());
+            res.put("deduplicated", submission.deduplicated());
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/jobs/" + submission.job().getId())
+                    .body(res);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", "Job queue full"));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> get(@PathVariable String id) {
+        return jobs.find(id)
+                .map(job -> ResponseEntity.ok(status(job)))
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Not found")));
+    }
+
+    /**
+     * 409 tant que le job n'est pas terminé avec succès.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> result(@PathVariable String id) {
+        var job = jobs.find(id);
+        if (job.isEmpty()) return ResponseEntity.status(404).body(Map.of("error", "Not found"));
+        if (job.get().getStatus() != StatsJobDoc.Status.DONE) {
+            String error = job.get().getError();
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error",
+                    "Job " + job.get().getStatus() + (error == null ? "" : ": " + error)));
+        }
+        return ResponseEntity.ok(job.get().getResult());
+    }
+
+    private static Map<String, Object> status(StatsJobDoc job) {
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("id", job.getId());
+        res.put("type", job.getType());
+        res.put("params", job.getParams());
+        res.put("status", job.getStatus());
+        res.put("createdAt", job.getCreatedAt());
+        if (job.getStartedAt() != null) res.put("startedAt", job.getStartedAt());
+        if (job.getFinishedAt() != null) res.put("finishedAt", job.getFinishedAt());
+        res.put("expireAt", job.getExpireAt());
+        if (job.getError() != null) res.put("error", job.getError());
+        if (job.getStatus() == StatsJobDoc.Status.DONE) res.put("result", "/api/jobs/" + job.getId() + "/result");
+        return res;
+    }
+}
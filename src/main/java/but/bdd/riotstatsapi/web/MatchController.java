@@ -6,9 +6,12 @@ import but.bdd.riotstatsapi.domain.MatchDataDoc;
 import but.bdd.riotstatsapi.domain.PlayerDoc;
 import but.bdd.riotstatsapi.domain.MatchIdDoc;
 import but.bdd.riotstatsapi.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 
@@ -18,12 +21,18 @@ import java.util.*;
 public class MatchController {
 
     private final MatchRepository repo;
-    private final PlayerRepository playerRepository;
+    private final PlayerBatchLoader playerLoader;
+    private final MatchHistoryResponder matchHistory;
+    private final ObjectMapper objectMapper;
 
     public MatchController(MatchRepository repo,
-                           PlayerRepository playerRepository) {
+                           PlayerBatchLoader playerLoader,
+                           MatchHistoryResponder matchHistory,
+                           ObjectMapper objectMapper) {
         this.repo = repo;
-        this.playerRepository = playerRepository;
+        this.playerLoader = playerLoader;
+        this.matchHistory = matchHistory;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/{matchId}")
@@ -38,10 +47,7 @@ public class MatchController {
         return repo.findMatchData(matchId)
                 .<ResponseEntity<?>>map(md -> {
                     List<String> puuids = md.getMetadata() != null ? md.getMetadata().getParticipants() : List.of();
-                    List<PlayerDoc> players = puuids.stream()
-                            .map(playerRepository::findByPuuid)
-                            .flatMap(Optional::stream)
-                            .toList();
+                    List<PlayerDoc> players = playerLoader.loadAll(puuids);
                     return ResponseEntity.ok(players);
                 })
                 .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error","Not found")));
@@ -57,11 +63,36 @@ public class MatchController {
     }
 
     @GetMapping("/ids")
-    public ResponseEntity<List<MatchIdDoc>> listMatchIds(
+    public ResponseEntity<?> listMatchIds(
+            @RequestParam(required = false) Tier tier,
+            @RequestParam(required = false) Rank rank,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        String after;
+        try {
+            after = PageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        int size = Math.max(1, Math.min(limit, 5000));
+        List<MatchIdDoc> page = repo.listMatchIds(tier, rank, after, size);
+        var res = ResponseEntity.ok();
+        if (page.size() == size) {
+            res.header(PageCursor.HEADER, PageCursor.encode(page.get(page.size() - 1).getMatchId()));
+        }
+        return res.body(page);
+    }
+
+    @GetMapping(value = "/ids", produces = StreamingResponses.NDJSON_VALUE)
+    @Bulkhead(Bulkhead.HEAVY)
+    public ResponseEntity<StreamingResponseBody> streamMatchIds(
             @RequestParam(required = false) Tier tier,
             @RequestParam(required = false) Rank rank
     ) {
-        return ResponseEntity.ok(repo.listMatchIds(tier, rank));
+        return ResponseEntity.ok()
+                .contentType(StreamingResponses.NDJSON)
+                .body(StreamingResponses.ndjson(objectMapper, () -> repo.streamMatchIds(tier, rank)));
     }
 
     @GetMapping("/ids/{matchId}")
@@ -72,26 +103,37 @@ public class MatchController {
     }
 
     @GetMapping("/ids/stats/count")
+    @ConditionalGet(DataVersions.MATCH_IDS)
     public ResponseEntity<Map<String, Long>> countMatchIds(
             @RequestParam(required = false) Tier tier,
-            @RequestParam(required = false) Rank rank
+            @RequestParam(required = false) Rank rank,
+            @RequestParam(defaultValue = "false") boolean estimated
     ) {
-        return ResponseEntity.ok(Map.of("count", repo.countMatchIds(tier, rank)));
+        long count = estimated && tier == null && rank == null
+                ? repo.estimatedMatchIdCount()
+                : repo.countMatchIds(tier, rank);
+        return ResponseEntity.ok(Map.of("count", count));
     }
 
     @GetMapping("/ids/stats/distinct-tiers")
+    @ConditionalGet(DataVersions.MATCH_IDS)
     public ResponseEntity<List<String>> distinctTiers() {
         return ResponseEntity.ok(repo.distinctTiers());
     }
 
     @GetMapping("/ids/stats/distinct-ranks")
+    @ConditionalGet(DataVersions.MATCH_IDS)
     public ResponseEntity<List<String>> distinctRanks() {
         return ResponseEntity.ok(repo.distinctRanks());
     }
 
     @GetMapping("/participants/{puuid}")
-    public ResponseEntity<List<MatchDataDoc>> getMatchesByPuuid(@PathVariable String puuid) {
-        return ResponseEntity.ok(repo.findMatchesByPuuid(puuid));
+    @Bulkhead(Bulkhead.HEAVY)
+    public ResponseEntity<StreamingResponseBody> getMatchesByPuuid(@PathVariable String puuid,
+                                                                   @RequestParam(defaultValue = "full") String view,
+                                                                   @RequestParam(required = false) List<String> fields,
+                                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return matchHistory.respond(puuid, view, fields, accept);
     }
 
     @GetMapping("/participants/{puuid}/count")
@@ -100,28 +142,31 @@ public class MatchController {
     }
 
     @GetMapping("/stats/durations")
+    @Bulkhead(Bulkhead.HEAVY)
+    @ConditionalGet({ DataVersions.DURATION_BUCKETS, DataVersions.MATCH_DATA })
     public ResponseEntity<Map<String, Object>> durations(
             @RequestParam(required = false) Integer queueId,
             @RequestParam(required = false) String platformId,
             @RequestParam(required = false) Long startTimeFrom,
             @RequestParam(required = false) Long startTimeTo) {
 
-        List<DurationStatsView> docs = repo.durationsStats(queueId, platformId, startTimeFrom, startTimeTo);
+        DurationStats stats = repo.durationsStats(queueId, platformId, startTimeFrom, startTimeTo);
         Map<String,Object> res = new LinkedHashMap<>();
-        if (docs.isEmpty()) {
-            res.put("min", 0);
-            res.put("max", 0);
-            res.put("avg", 0.0);
-        } else {
-            var d = docs.get(0);
-            res.put("min", d.getMin());
-            res.put("max", d.getMax());
-            res.put("avg", d.getAvg());
-        }
+        res.put("count", stats.count());
+        res.put("min", stats.min());
+        res.put("max", stats.max());
+        res.put("avg", stats.avg());
+        res.put("p50", stats.p50());
+        res.put("p90", stats.p90());
+        res.put("p99", stats.p99());
+        res.put("binSeconds", stats.binSeconds());
+        res.put("histogram", stats.histogram());
         return ResponseEntity.ok(res);
     }
 
     @GetMapping("/stats/champions")
+    @Bulkhead(Bulkhead.HEAVY)
+    @ConditionalGet(DataVersions.CHAMPION_STATS)
     public ResponseEntity<List<LinkedHashMap<String, Object>>> championFrequency(@RequestParam(defaultValue = "50") int limit) {
         var views = repo.championFrequency(limit);
         var res = views.stream().map(v -> {
@@ -135,6 +180,8 @@ public class MatchController {
     }
 
     @GetMapping("/stats/winrate-by-champion")
+    @Bulkhead(Bulkhead.HEAVY)
+    @ConditionalGet(DataVersions.CHAMPION_STATS)
     public ResponseEntity<List<LinkedHashMap<String, Object>>> winrateByChampion(
             @RequestParam(required = false) Integer queueId,
             @RequestParam(required = false) String platformId) {
@@ -151,7 +198,15 @@ public class MatchController {
         return ResponseEntity.ok(res);
     }
 
+    @PostMapping("/stats/rebuild")
+    @Bulkhead(Bulkhead.HEAVY)
+    public ResponseEntity<Map<String, Long>> rebuildRollups() {
+        return ResponseEntity.ok(repo.rebuildRollups());
+    }
+
     @GetMapping("/stats/players/{puuid}")
+    @Bulkhead(Bulkhead.HEAVY)
+    @ConditionalGet(DataVersions.PARTICIPATIONS)
     public ResponseEntity<PlayerRolesView> getPlayerWithRolesStatistics(@PathVariable String puuid) {
         var result = repo.getPlayerWithRolesStatistics(puuid);
         if (result == null) return ResponseEntity.notFound().build();
@@ -159,9 +214,27 @@ public class MatchController {
     }
 
     @GetMapping("/stats/champions/{champion}")
+    @Bulkhead(Bulkhead.HEAVY)
+    @ConditionalGet(DataVersions.PARTICIPATIONS)
     public ResponseEntity<ChampionStatisticsView> getChampionStatistics(@PathVariable String champion) {
         var result = repo.getChampionStatistics(champion);
         if (result == null) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(result);
     }
+
+    @GetMapping("/stats/matchups/{champion}")
+    @Bulkhead(Bulkhead.HEAVY)
+    @ConditionalGet(DataVersions.MATCH_DATA)
+    public ResponseEntity<ChampionMatchupsView> matchups(
+            @PathVariable String champion,
+            @RequestParam(required = false) Integer queueId,
+            @RequestParam(required = false) String platformId,
+            @RequestParam(defaultValue = "1") int minGames,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        MatchupMatrix matrix = repo.matchups(queueId, platformId);
+        var code = matrix.find(champion);
+        if (code.isEmpty()) return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(matrix.view(code.getAsInt(), Math.max(1, minGames), Math.max(1, Math.min(limit, 500))));
+    }
 }
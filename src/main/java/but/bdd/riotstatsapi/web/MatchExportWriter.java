@@ -0,0 +1,122 @@
+package but.bdd.riotstatsapi.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriter;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Écriture d'un export match_data au fil du curseur : NDJSON (documents bruts, JSON étendu relâché) ou CSV à plat,
+ * une ligne par participant. Compression gzip faite ici, avec un niveau réglable (riot.export.gzip-level) ;
+ * le nombre d'exports simultanés est borné par le bulkhead EXPORT.
+ */
+@Component
+class MatchExportWriter {
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "matchId", "queueId", "platformId", "gameVersion", "gameStartTimestamp", "gameDuration",
+            "participantId", "puuid", "riotIdGameName", "riotIdTagline", "teamId", "championId", "championName",
+            "individualPosition", "teamPosition", "win", "kills", "deaths", "assists", "goldEarned",
+            "totalDamageDealtToChampions", "totalMinionsKilled");
+
+    private static final JsonWriterSettings JSON = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+    private static final DocumentCodec CODEC = new DocumentCodec();
+    private static final int BUFFER = 64 * 1024;
+
+    private final int gzipLevel;
+    private final Counter ndjsonDocuments;
+    private final Counter csvDocuments;
+
+    MatchExportWriter(@Value("${riot.export.gzip-level:1}") int gzipLevel, MeterRegistry registry) {
+        this.gzipLevel = gzipLevel;
+        this.ndjsonDocuments = Counter.builder("riot.export.documents").tag("format", "ndjson").register(registry);
+        this.csvDocuments = Counter.builder("riot.export.documents").tag("format", "csv").register(registry);
+    }
+
+    StreamingResponseBody body(Supplier<Stream<Document>> source, boolean csv, boolean gzip) {
+        return out -> {
+            try (Stream<Document> docs = source.get()) {
+                OutputStream sink = gzip ? new LeveledGzip(out, gzipLevel) : out;
+                Writer writer = new BufferedWriter(new OutputStreamWriter(sink, StandardCharsets.UTF_8), BUFFER);
+                if (csv) writeCsv(docs.iterator(), writer);
+                else writeNdjson(docs.iterator(), writer);
+                writer.flush();
+                if (sink instanceof GZIPOutputStream gz) gz.finish();
+            }
+        };
+    }
+
+    private void writeNdjson(Iterator<Document> docs, Writer writer) throws IOException {
+        EncoderContext context = EncoderContext.builder().build();
+        while (docs.hasNext()) {
+            CODEC.encode(new JsonWriter(writer, JSON), docs.next(), context);
+            writer.write('\n');
+            ndjsonDocuments.increment();
+        }
+    }
+
+    private void writeCsv(Iterator<Document> docs, Writer writer) throws IOException {
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write('\n');
+        while (docs.hasNext()) {
+            Document doc = docs.next();
+            Document metadata = doc.get("metadata", Document.class);
+            Document info = doc.get("info", Document.class);
+            if (info == null) continue;
+            List<Document> participants = info.getList("participants", Document.class);
+            if (participants == null) continue;
+            Object matchId = metadata == null ? null : metadata.get("matchId");
+            for (Document p : participants) {
+                cell(writer, matchId, false);
+                cell(writer, info.get("queueId"), true);
+                cell(writer, info.get("platformId"), true);
+                cell(writer, info.get("gameVersion"), true);
+                cell(writer, info.get("gameStartTimestamp"), true);
+                cell(writer, info.get("gameDuration"), true);
+                for (String column : CSV_COLUMNS.subList(6, CSV_COLUMNS.size())) {
+                    cell(writer, p.get(column), true);
+                }
+                writer.write('\n');
+            }
+            csvDocuments.increment();
+        }
+    }
+
+    private static void cell(Writer writer, Object value, boolean separator) throws IOException {
+        if (separator) writer.write(',');
+        if (value == null) return;
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            writer.write(s);
+            return;
+        }
+        writer.write('"');
+        writer.write(s.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * GZIPOutputStream dont le niveau de compression est réglable (1 : le plus rapide).
+     */
+    private static final class LeveledGzip extends GZIPOutputStream {
+        LeveledGzip(OutputStream out, int level) throws IOException {
+            super(out, BUFFER);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package but.bdd.riotstatsapi.web;
+
+import but.bdd.riotstatsapi.repository.MatchFields;
+import but.bdd.riotstatsapi.repository.MatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Historique de matchs d'un joueur, partagé par /api/matches/participants/{puuid} et /api/players/{puuid}/matches.
+ * view=summary renvoie une ligne par match, fields=... projette les documents complets côté Mongo.
+ * L'historique est écrit au fil du curseur : tableau JSON par défaut, NDJSON, CBOR ou Smile selon Accept,
+ * sur le pool borné mvc-async (AsyncConfig) et sans le délai de 30 s de Tomcat (riot.async.timeout).
+ */
+@Component
+class MatchHistoryResponder {
+
+    private static final List<MediaType> OFFERED = List.of(
+            MediaType.APPLICATION_JSON, StreamingResponses.NDJSON, MediaType.APPLICATION_CBOR, StreamingResponses.SMILE);
+
+    private final MatchRepository repo;
+    private final ObjectMapper objectMapper;
+    private final Map<MediaType, ObjectMapper> arrays = new LinkedHashMap<>();
+
+    MatchHistoryResponder(MatchRepository repo, ObjectMapper objectMapper,
+                          MappingJackson2CborHttpMessageConverter cbor,
+                          MappingJackson2SmileHttpMessageConverter smile) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+        arrays.put(MediaType.APPLICATION_JSON, objectMapper);
+        arrays.put(MediaType.APPLICATION_CBOR, cbor.getObjectMapper());
+        arrays.put(StreamingResponses.SMILE, smile.getObjectMapper());
+    }
+
+    ResponseEntity<StreamingResponseBody> respond(String puuid, String view, List<String> fields, String accept) {
+        if ("summary".equalsIgnoreCase(view)) {
+            return stream(accept, () -> repo.streamMatchSummariesByPuuid(puuid));
+        }
+        if (!"full".equalsIgnoreCase(view)) {
+            return StreamingResponses.badRequest(objectMapper, "Unknown view: " + view);
+        }
+        List<String> requested = fields == null ? List.of() : fields;
+        try {
+            MatchFields.projection(requested);
+        } catch (IllegalArgumentException e) {
+            return StreamingResponses.badRequest(objectMapper, e.getMessage());
+        }
+        return stream(accept, () -> repo.streamMatchesByPuuid(puuid, requested));
+    }
+
+    /**
+     * Les paramètres sont validés dans le thread de la requête (400) ; le curseur est ouvert puis fermé par le
+     * corps de réponse : une tâche rejetée (503) ou expirée avant de démarrer ne laisse aucun curseur ouvert.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> stream(String accept, Supplier<Stream<T>> source) {
+        MediaType type = StreamingResponses.negotiate(accept, OFFERED);
+        if (StreamingResponses.NDJSON.equals(type)) {
+            return ResponseEntity.ok()
+                    .contentType(type)
+                    .body(StreamingResponses.ndjson(objectMapper, source));
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .body(StreamingResponses.array(arrays.get(type), source));
+    }
+}
@@ -0,0 +1,23 @@
+package but.bdd.riotstatsapi.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Jeton de pagination opaque : la dernière clé renvoyée, encodée en base64 url-safe.
+ */
+final class PageCursor {
+
+    static final String HEADER = "X-Next-Cursor";
+
+    private PageCursor() {}
+
+    static String encode(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
@@ -3,12 +3,16 @@ package but.bdd.riotstatsapi.web;
 import but.bdd.riotstatsapi.domain.Rank;
 import but.bdd.riotstatsapi.domain.Tier;
 import but.bdd.riotstatsapi.domain.PlayerDoc;
+import but.bdd.riotstatsapi.repository.DataVersions;
+import but.bdd.riotstatsapi.repository.LeaderboardField;
+import but.bdd.riotstatsapi.repository.MatchRepository;
+import but.bdd.riotstatsapi.repository.PlayerLeaderboard;
 import but.bdd.riotstatsapi.repository.PlayerRepository;
-import but.bdd.riotstatsapi.repository.MatchDataRepository;
-import but.bdd.riotstatsapi.domain.MatchDataDoc;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 
@@ -18,11 +22,18 @@ import java.util.*;
 public class PlayerController {
 
     private final PlayerRepository playerRepository;
-    private final MatchDataRepository matchDataRepository;
+    private final MatchRepository matchRepository;
+    private final MatchHistoryResponder matchHistory;
+    private final FanOut fanOut;
+    private final PlayerLeaderboard leaderboard;
 
-    public PlayerController(PlayerRepository playerRepository, MatchDataRepository matchDataRepository) {
+    public PlayerController(PlayerRepository playerRepository, MatchRepository matchRepository,
+                            MatchHistoryResponder matchHistory, FanOut fanOut, PlayerLeaderboard leaderboard) {
         this.playerRepository = playerRepository;
-        this.matchDataRepository = matchDataRepository;
+        this.matchRepository = matchRepository;
+        this.matchHistory = matchHistory;
+        this.fanOut = fanOut;
+        this.leaderboard = leaderboard;
     }
 
     @GetMapping
@@ -44,6 +55,27 @@ public class PlayerController {
         return playerRepository.findByPuuid(puuid);
     }
 
+    /**
+     * Profil composite : joueur, statistiques par rôle et nombre de matchs, lus en parallèle.
+     */
+    @GetMapping("/{puuid}/overview")
+    @Bulkhead(Bulkhead.HEAVY)
+    public ResponseEntity<?> overview(@PathVariable String puuid) {
+        try (var scope = fanOut.scope()) {
+            var player = scope.fork(() -> playerRepository.findByPuuid(puuid));
+            var roles = scope.fork(() -> matchRepository.getPlayerWithRolesStatistics(puuid));
+            var matchCount = scope.fork(() -> matchRepository.countMatchesByPuuid(puuid));
+            scope.join();
+
+            if (player.get().isEmpty()) return ResponseEntity.status(404).body(Map.of("error","Not found"));
+            Map<String, Object> res = new java.util.LinkedHashMap<>();
+            res.put("player", player.get().get());
+            res.put("roles", roles.get());
+            res.put("matchCount", matchCount.get());
+            return ResponseEntity.ok(res);
+        }
+    }
+
     @DeleteMapping("/{puuid}")
     public ResponseEntity<?> delete(@PathVariable String puuid) {
         Optional<PlayerDoc> existing = playerRepository.findByPuuid(puuid);
@@ -56,18 +88,52 @@ public class PlayerController {
     public ResponseEntity<Map<String, Object>> count(@RequestParam(required = false) Tier tier,
                                                    @RequestParam(required = false) Rank rank,
                                                    @RequestParam(required = false) Integer minLp,
-                                                   @RequestParam(required = false) Integer maxLp) {
-        List<PlayerDoc> p = playerRepository.search(tier, rank, minLp, maxLp, null, null, null);
+                                                   @RequestParam(required = false) Integer maxLp,
+                                                   @RequestParam(defaultValue = "false") boolean estimated) {
+        boolean unfiltered = tier == null && rank == null && minLp == null && maxLp == null;
+        long count = estimated && unfiltered
+                ? playerRepository.estimatedCount()
+                : playerRepository.countSearch(tier, rank, minLp, maxLp, null, null, null);
         Map<String,Object> res = new java.util.LinkedHashMap<>();
-        res.put("count", p.size());
+        res.put("count", count);
         return ResponseEntity.ok(res);
     }
 
+    /**
+     * Servi depuis l'instantané en mémoire (top-K par tier/rank), pagination par curseur (valeur, puuid).
+     */
     @GetMapping("/stats/leaderboard")
-    public ResponseEntity<List<PlayerDoc>> leaderboard(@RequestParam(defaultValue = "leaguePoints") String field,
-                                                       @RequestParam(defaultValue = "100") Integer limit) {
-        List<PlayerDoc> list = playerRepository.leaderboard(field, limit);
-        return ResponseEntity.ok(list);
+    @ConditionalGet(DataVersions.LEADERBOARD)
+    public ResponseEntity<?> leaderboard(@RequestParam(defaultValue = "leaguePoints") String field,
+                                         @RequestParam(required = false) Tier tier,
+                                         @RequestParam(required = false) Rank rank,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "100") int limit) {
+        var sort = LeaderboardField.fromParam(field);
+        if (sort.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Unknown field: " + field + " (leaguePoints, wins, losses, winrate)"));
+        }
+        double afterValue = 0;
+        String afterPuuid = null;
+        try {
+            String after = PageCursor.decode(cursor);
+            if (after != null) {
+                int sep = after.indexOf('|');
+                afterValue = Double.parseDouble(after.substring(0, sep));
+                afterPuuid = after.substring(sep + 1);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
+        }
+        int size = Math.max(1, Math.min(limit, 1000));
+        List<PlayerDoc> page = leaderboard.page(sort.get(), tier, rank, afterValue, afterPuuid, size);
+        var res = ResponseEntity.ok();
+        if (page.size() == size) {
+            PlayerDoc last = page.get(page.size() - 1);
+            res.header(PageCursor.HEADER, PageCursor.encode(sort.get().valueOf(last) + "|" + last.getPuuid()));
+        }
+        return res.body(page);
     }
 
     @GetMapping("/stats/winrate/{puuid}")
@@ -91,9 +157,23 @@ public class PlayerController {
                 });
     }
 
+    /**
+     * KDA, CS/min, or/min et dégâts/min au total, par rôle et par champion, lus dans player_profiles.
+     */
+    @GetMapping("/stats/profile/{puuid}")
+    @ConditionalGet(DataVersions.PLAYER_PROFILES)
+    public ResponseEntity<?> profile(@PathVariable String puuid) {
+        return matchRepository.getPlayerProfile(puuid)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("error", "Not found")));
+    }
+
     @GetMapping("/{puuid}/matches")
-    public ResponseEntity<List<MatchDataDoc>> matches(@PathVariable String puuid) {
-        List<MatchDataDoc> list = matchDataRepository.findAllByParticipantPuuid(puuid);
-        return ResponseEntity.ok(list);
+    @Bulkhead(Bulkhead.HEAVY)
+    public ResponseEntity<StreamingResponseBody> matches(@PathVariable String puuid,
+                                                         @RequestParam(defaultValue = "full") String view,
+                                                         @RequestParam(required = false) List<String> fields,
+                                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return matchHistory.respond(puuid, view, fields, accept);
     }
 }
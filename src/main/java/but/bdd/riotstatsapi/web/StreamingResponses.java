@@ -0,0 +1,105 @@
+package but.bdd.riotstatsapi.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Écriture d'un curseur Mongo directement dans la réponse, document par document.
+ * Le Stream est fermé dans le thread d'écriture : la mémoire reste bornée par la taille de lot du curseur,
+ * et un client lent bloque l'écriture (donc la lecture du lot suivant) plutôt que de faire grossir un tampon.
+ */
+final class StreamingResponses {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private StreamingResponses() {}
+
+    /**
+     * Premier type proposé accepté par le client, en parcourant Accept du plus spécifique au plus générique ;
+     * le premier type proposé sert de défaut (Accept absent, générique ou invalide).
+     */
+    static MediaType negotiate(String accept, List<MediaType> offered) {
+        if (accept == null || accept.isBlank()) return offered.get(0);
+        try {
+            List<MediaType> types = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(types);
+            for (MediaType type : types) {
+                for (MediaType candidate : offered) {
+                    if (type.includes(candidate)) return candidate;
+                }
+            }
+            return offered.get(0);
+        } catch (InvalidMediaTypeException e) {
+            return offered.get(0);
+        }
+    }
+
+    /**
+     * Erreur {"error": ...} pour les endpoints dont le corps normal est un flux.
+     */
+    static ResponseEntity<StreamingResponseBody> badRequest(ObjectMapper mapper, String message) {
+        return error(ResponseEntity.badRequest(), mapper, message);
+    }
+
+    static ResponseEntity<StreamingResponseBody> error(ResponseEntity.BodyBuilder response, ObjectMapper mapper, String message) {
+        return response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> mapper.writer()
+                        .without(SerializationFeature.CLOSE_CLOSEABLE)
+                        .writeValue(out, Map.of("error", message)));
+    }
+
+    static <T> StreamingResponseBody ndjson(ObjectMapper mapper, Supplier<Stream<T>> source) {
+        ObjectWriter writer = mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        return out -> {
+            try (Stream<T> stream = source.get()) {
+                JsonGenerator gen = writer.createGenerator(out);
+                Iterator<T> it = stream.iterator();
+                boolean any = false;
+                while (it.hasNext()) {
+                    writer.writeValue(gen, it.next());
+                    any = true;
+                }
+                if (any) gen.writeRaw('\n');
+                gen.flush();
+            }
+        };
+    }
+
+    /**
+     * Tableau écrit élément par élément (réponse chunked), sans matérialiser la liste ; JSON, CBOR ou Smile
+     * selon la fabrique du mapper.
+     */
+    static <T> StreamingResponseBody array(ObjectMapper mapper, Supplier<Stream<T>> source) {
+        ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try (Stream<T> stream = source.get()) {
+                JsonGenerator gen = writer.createGenerator(out);
+                gen.writeStartArray();
+                Iterator<T> it = stream.iterator();
+                while (it.hasNext()) {
+                    writer.writeValue(gen, it.next());
+                }
+                gen.writeEndArray();
+                gen.flush();
+            }
+        };
+    }
+}
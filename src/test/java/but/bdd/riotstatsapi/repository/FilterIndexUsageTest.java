@@ -0,0 +1,196 @@
+package but.bdd.riotstatsapi.repository;
+
+import but.bdd.riotstatsapi.domain.Rank;
+import but.bdd.riotstatsapi.domain.Tier;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Les filtres optionnels doivent rester planifiables sur un index : chaque commande réellement envoyée par les
+ * repositories est capturée puis rejouée en explain, et son plan gagnant doit contenir un IXSCAN.
+ * Nécessite Docker (MongoDB 7 en conteneur) ; ignoré sinon.
+ */
+@DataMongoTest(properties = "spring.data.mongodb.auto-index-creation=true")
+@Import(FilterIndexUsageTest.CommandCapture.class)
+class FilterIndexUsageTest {
+
+    private static final Deque<BsonDocument> COMMANDS = new ConcurrentLinkedDeque<>();
+    private static MongoDBContainer mongo;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private PlayerRepository players;
+    @Autowired
+    private MatchIdRepository matchIds;
+    @Autowired
+    private MatchDataRepository matchData;
+    @Autowired
+    private ChampionStatsRepository championStats;
+
+    @BeforeAll
+    static void startMongo() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker requis");
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongo != null) mongo.stop();
+    }
+
+    @DynamicPropertySource
+    static void mongoUri(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> mongo.getReplicaSetUrl("riot_test"));
+    }
+
+    @BeforeEach
+    void seed() {
+        for (String collection : List.of("players", "match_ids", "match_data", "champion_stats")) {
+            mongoTemplate.getCollection(collection).deleteMany(new Document());
+        }
+        Tier[] tiers = Tier.values();
+        Rank[] ranks = Rank.values();
+        for (int i = 0; i < 200; i++) {
+            Tier tier = tiers[i % tiers.length];
+            Rank rank = ranks[i % ranks.length];
+            mongoTemplate.getCollection("players").insertOne(new Document("puuid", "p" + i)
+                    .append("tier", tier.name()).append("rank", rank.name()).append("leaguePoints", i % 100));
+            mongoTemplate.getCollection("match_ids").insertOne(new Document("matchId", "EUW1_" + i)
+                    .append("tier", tier.name()).append("rank", rank.name()));
+            mongoTemplate.getCollection("match_data").insertOne(new Document("metadata", new Document("matchId", "EUW1_" + i))
+                    .append("info", new Document("queueId", i % 2 == 0 ? 420 : 440)
+                            .append("platformId", i % 3 == 0 ? "EUW1" : "NA1")
+                            .append("gameStartTimestamp", 1_720_000_000_000L + i * 60_000L)
+                            .append("gameDuration", 900 + i)));
+            mongoTemplate.getCollection("champion_stats").insertOne(new Document("championId", i)
+                    .append("queueId", i % 2 == 0 ? 420 : 440).append("platformId", "EUW1")
+                    .append("championName", "Champ" + i).append("games", 10).append("wins", 5));
+        }
+        COMMANDS.clear();
+    }
+
+    @Test
+    void playerSearchOnTierRankAndLeaguePoints() {
+        players.search(Tier.DIAMOND, Rank.II, 10, 80, null, null, null);
+        assertIndexScan("find", "players");
+    }
+
+    @Test
+    void playerSearchOnTierOnly() {
+        players.search(Tier.MASTER, null, null, null, null, null, null);
+        assertIndexScan("find", "players");
+    }
+
+    @Test
+    void matchIdCountOnTierAndRank() {
+        matchIds.countByOptionalFilters(Tier.EMERALD, Rank.I);
+        assertIndexScan("aggregate", "match_ids");
+    }
+
+    @Test
+    void durationsStatsMatchStage() {
+        matchData.durationsStats(420, "EUW1", 1_720_000_000_000L, 1_720_000_600_000L);
+        assertIndexScan("aggregate", "match_data");
+    }
+
+    @Test
+    void winrateByChampionMatchStage() {
+        championStats.winrateByChampion(420, null);
+        assertIndexScan("aggregate", "champion_stats");
+    }
+
+    /**
+     * Rejoue en explain (queryPlanner) la dernière commande envoyée sur la collection.
+     */
+    private void assertIndexScan(String commandName, String collection) {
+        BsonDocument command = null;
+        for (BsonDocument candidate : COMMANDS) {
+            if (candidate.containsKey(commandName) && candidate.getString(commandName).getValue().equals(collection)) {
+                command = candidate;
+            }
+        }
+        assertThat(command).as("commande %s sur %s", commandName, collection).isNotNull();
+        // la commande capturée est immuable (RawBsonDocument) : copie sans les champs de session et de routage
+        BsonDocument explainable = new BsonDocument();
+        List<String> excluded = List.of("$db", "lsid", "$clusterTime", "$readPreference", "txnNumber", "apiVersion");
+        command.forEach((field, value) -> {
+            if (!excluded.contains(field)) explainable.put(field, value);
+        });
+        Document explain = mongoTemplate.getDb().runCommand(new BsonDocument("explain", explainable)
+                .append("verbosity", new BsonString("queryPlanner")));
+
+        List<Document> plans = new ArrayList<>();
+        collect(explain, "winningPlan", plans);
+        assertThat(plans).as("plans gagnants de %s", command.toJson()).isNotEmpty();
+        for (Document plan : plans) {
+            List<String> stages = new ArrayList<>();
+            stages(plan, stages);
+            assertThat(stages).as("étapes du plan gagnant de %s", command.toJson())
+                    .contains("IXSCAN")
+                    .doesNotContain("COLLSCAN");
+        }
+    }
+
+    private static void collect(Object node, String key, List<Document> into) {
+        if (node instanceof Document doc) {
+            doc.forEach((k, v) -> {
+                if (k.equals(key) && v instanceof Document plan) into.add(plan);
+                else collect(v, key, into);
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collect(item, key, into));
+        }
+    }
+
+    private static void stages(Object node, List<String> into) {
+        if (node instanceof Document doc) {
+            if (doc.get("stage") instanceof String stage) into.add(stage);
+            doc.values().forEach(v -> stages(v, into));
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> stages(item, into));
+        }
+    }
+
+    @TestConfiguration
+    static class CommandCapture {
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer commandCapture() {
+            CommandListener listener = new CommandListener() {
+                @Override
+                public void commandStarted(CommandStartedEvent event) {
+                    COMMANDS.add(event.getCommand().clone());
+                }
+            };
+            return builder -> builder.addCommandListener(listener);
+        }
+    }
+}